@@ -0,0 +1,97 @@
+package org.magicalpanda.projectmanagementbackend.model.id;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput with IDENTITY ids (one statement per row, no JDBC batching) against
+ * time-ordered ids (batched by hibernate.jdbc.batch_size), on an in-memory H2 database.
+ *
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="IdGenerationInsertBenchmark"
+ *
+ * H2 runs in process, so a round trip costs far less than against MySQL over the network;
+ * the gap measured here is a lower bound for production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGenerationInsertBenchmark {
+
+    private static final int ROWS_PER_TRANSACTION = 500;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setup() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(IdentityRow.class)
+                .addAnnotatedClass(TimeOrderedRow.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:id-benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty(TimeOrderedIdGenerator.WORKER_ID_SETTING, "0")
+                .buildSessionFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TRANSACTION)
+    public void insertIdentity() {
+        insert(IdentityRow::new);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TRANSACTION)
+    public void insertTimeOrdered() {
+        insert(TimeOrderedRow::new);
+    }
+
+    private void insert(Supplier<Object> rows) {
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+                session.persist(rows.get());
+            }
+        });
+    }
+
+    @Entity
+    @Table(name = "identity_rows")
+    public static class IdentityRow {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        String name = "row";
+    }
+
+    @Entity
+    @Table(name = "time_ordered_rows")
+    public static class TimeOrderedRow {
+
+        @Id
+        @TimeOrderedId
+        Long id;
+
+        String name = "row";
+    }
+}
@@ -0,0 +1,127 @@
+package org.magicalpanda.projectmanagementbackend.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.Role;
+import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.security.SecureRandom;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the token issue/verify path that runs on every login, refresh and authenticated request.
+ *
+ * Run with: ./mvnw -Pjmh test-compile exec:exec -Djmh.args="TokenBenchmark -prof gc"
+ *
+ * validateAccessTokenFreshParser reproduces the previous behaviour of building a new JJWT parser
+ * for every validation, validateAccessToken uses the single prebuilt parser held by JwtService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBenchmark {
+
+    private SecretKey signingKey;
+    private JwtService jwtService;
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    private SecurityUser securityUser;
+
+    private String accessToken;
+    private String refreshToken;
+    private Claims accessClaims;
+
+    @Setup
+    public void setup() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        signingKey = Keys.hmacShaKeyFor(secret);
+
+        jwtService = new JwtService(
+                Encoders.BASE64.encode(secret),
+                900,
+                604800,
+                new NoOpRefreshTokenStore()
+        );
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtService, null, null, null);
+
+        securityUser = new SecurityUser(42L, "benchmark", "benchmark@example.com", Role.USER, true);
+
+        accessToken = jwtService.generateAccessToken(securityUser);
+        refreshToken = jwtService.generateRefreshToken(securityUser);
+        accessClaims = jwtService.validateAccessToken(accessToken);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(securityUser);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(securityUser);
+    }
+
+    @Benchmark
+    public Claims validateAccessToken() {
+        return jwtService.validateAccessToken(accessToken);
+    }
+
+    @Benchmark
+    public Claims validateAccessTokenFreshParser() {
+        return Jwts.parser()
+                .verifyWith(signingKey)
+                .build()
+                .parseSignedClaims(accessToken)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims validateRefreshToken() {
+        return jwtService.validateRefreshToken(refreshToken);
+    }
+
+    @Benchmark
+    public SecurityUser buildPrincipal() {
+        return jwtAuthenticationFilter.buildPrincipal(accessClaims);
+    }
+
+    /**
+     * Store that accepts every save without touching a database or Redis,
+     * so generateRefreshToken measures token issuance only.
+     */
+    private static final class NoOpRefreshTokenStore implements RefreshTokenStore {
+
+        @Override
+        public void save(IssuedRefreshToken token, SecurityUser owner) {
+        }
+
+        @Override
+        public SecurityUser rotate(String presentedJti, IssuedRefreshToken replacement) {
+            throw new UnsupportedOperationException("rotate");
+        }
+
+        @Override
+        public boolean revoke(String jti, Long userId) {
+            throw new UnsupportedOperationException("revoke");
+        }
+
+        @Override
+        public void revokeAll(Long userId) {
+            throw new UnsupportedOperationException("revokeAll");
+        }
+
+        @Override
+        public List<RefreshSession> activeSessions(Long userId) {
+            throw new UnsupportedOperationException("activeSessions");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.magicalpanda.projectmanagementbackend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Enables @Async and defines the executors background writers run on.
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String REFRESH_TOKEN_AUDIT_EXECUTOR = "refreshTokenAuditExecutor";
+
+    /**
+     * Replaces Boot's applicationTaskExecutor, which backs off as soon as any Executor bean
+     * exists (the audit executor below). Without it Spring MVC async requests would run on an
+     * unbounded SimpleAsyncTaskExecutor and unqualified @Async methods on the audit thread.
+     * Also registered as "taskExecutor", the default executor of @Async.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(
+            @Value("${spring.task.execution.pool.core-size:8}") int coreSize,
+            @Value("${spring.task.execution.pool.max-size:16}") int maxSize,
+            @Value("${spring.task.execution.pool.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity); // full: TaskRejectedException, never unbounded
+        executor.setThreadNamePrefix("task-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Single thread keeps audit writes ordered. When the queue is full (database down or
+     * slow) records are dropped rather than slowing down token refreshes.
+     */
+    @Bean(name = REFRESH_TOKEN_AUDIT_EXECUTOR)
+    public ThreadPoolTaskExecutor refreshTokenAuditExecutor(
+            @Value("${spring.security.jwt.refresh-token-audit.queue-capacity:10000}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("refresh-audit-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Refresh token audit queue full, dropping audit record"));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,40 @@
+package org.magicalpanda.projectmanagementbackend.config;
+
+import org.magicalpanda.projectmanagementbackend.policy.ProjectAccessCache;
+import org.magicalpanda.projectmanagementbackend.service.SearchService;
+import org.magicalpanda.projectmanagementbackend.service.TokenBlacklistService;
+import org.magicalpanda.projectmanagementbackend.service.TokenRevocationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+
+/**
+ * Redis pub/sub wiring used to keep node-local state in sync across instances.
+ */
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TokenBlacklistService tokenBlacklistService,
+            TokenRevocationService tokenRevocationService,
+            ProjectAccessCache projectAccessCache,
+            SearchService searchService
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(tokenBlacklistService, new ChannelTopic(TokenBlacklistService.CHANNEL));
+        container.addMessageListener(tokenRevocationService, new ChannelTopic(TokenRevocationService.CHANNEL));
+        container.addMessageListener(projectAccessCache, new ChannelTopic(ProjectAccessCache.CHANNEL));
+        container.addMessageListener(searchService, List.of(
+                new ChannelTopic(SearchService.CHANNEL),
+                new ChannelTopic(SearchService.REBUILD_CHANNEL)
+        ));
+        return container;
+    }
+}
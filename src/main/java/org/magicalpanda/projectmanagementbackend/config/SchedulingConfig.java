@@ -0,0 +1,12 @@
+package org.magicalpanda.projectmanagementbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (filter rotation, maintenance tasks).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
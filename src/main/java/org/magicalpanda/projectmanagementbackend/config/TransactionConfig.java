@@ -0,0 +1,14 @@
+package org.magicalpanda.projectmanagementbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+/**
+ * Orders the transaction interceptor before method security (@PreAuthorize runs at 200), so
+ * a policy check runs inside the transaction of the method it guards and shares its
+ * persistence context (see MembershipContext).
+ */
+@Configuration
+@EnableTransactionManagement(order = 0, proxyTargetClass = true)
+public class TransactionConfig {
+}
@@ -5,12 +5,17 @@ import lombok.RequiredArgsConstructor;
 import org.magicalpanda.projectmanagementbackend.dto.request.*;
 import org.magicalpanda.projectmanagementbackend.dto.response.LoginResponse;
 import org.magicalpanda.projectmanagementbackend.dto.response.RegisterResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.SessionResponse;
 import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
 import org.magicalpanda.projectmanagementbackend.service.AuthService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -61,4 +66,24 @@ public class AuthController {
         authService.logout(request, authHeader);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(
+            @AuthenticationPrincipal SecurityUser securityUser
+    ) {
+        authService.logoutAll(securityUser.getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/sessions")
+    public ResponseEntity<List<SessionResponse>> sessions(
+            @AuthenticationPrincipal SecurityUser securityUser
+    ) {
+        List<SessionResponse> sessions = authService.activeSessions(securityUser.getId())
+                .stream()
+                .map(SessionResponse::from)
+                .toList();
+
+        return ResponseEntity.ok(sessions);
+    }
 }
@@ -0,0 +1,37 @@
+package org.magicalpanda.projectmanagementbackend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.ProjectStatusFilter;
+import org.magicalpanda.projectmanagementbackend.dto.response.AssignedTaskResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.CursorPageResponse;
+import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
+import org.magicalpanda.projectmanagementbackend.service.TaskService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/me")
+@RequiredArgsConstructor
+public class MeController {
+
+    private final TaskService taskService;
+
+    /**
+     * The current user's open tasks across projects, soonest due first; cursor paginated.
+     */
+    @GetMapping("/tasks")
+    public ResponseEntity<CursorPageResponse<AssignedTaskResponse>> getMyTasks(
+            @RequestParam(required = false) List<ProjectStatusFilter> status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal SecurityUser securityUser
+    ) {
+        return ResponseEntity.ok(taskService.getMyTasks(securityUser.getId(), status, cursor, size));
+    }
+}
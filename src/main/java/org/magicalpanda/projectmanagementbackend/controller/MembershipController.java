@@ -2,8 +2,10 @@ package org.magicalpanda.projectmanagementbackend.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.dto.request.BatchInviteRequest;
 import org.magicalpanda.projectmanagementbackend.dto.request.CreateMembershipRequest;
 import org.magicalpanda.projectmanagementbackend.dto.request.UpdateMembershipRequest;
+import org.magicalpanda.projectmanagementbackend.dto.response.InviteResultResponse;
 import org.magicalpanda.projectmanagementbackend.dto.response.MembershipResponse;
 import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
 import org.magicalpanda.projectmanagementbackend.service.MembershipService;
@@ -12,6 +14,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/members")
 @RequiredArgsConstructor
@@ -31,6 +35,17 @@ public class MembershipController {
                 .body(response);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<InviteResultResponse>> inviteMembers(
+            @Valid @RequestBody BatchInviteRequest request,
+            @AuthenticationPrincipal SecurityUser securityUser
+    ) {
+        // Per-user outcomes, so 200 even when some users could not be invited
+        return ResponseEntity.ok(
+                membershipService.createMemberships(request.getProjectId(), securityUser.getId(), request.getUserIds())
+        );
+    }
+
     @PatchMapping("/{membershipId}")
     public ResponseEntity<Void> updateMembership(
             @PathVariable Long membershipId,
@@ -5,19 +5,27 @@ import lombok.RequiredArgsConstructor;
 import org.magicalpanda.projectmanagementbackend.dto.enumeration.ProjectStatusFilter;
 import org.magicalpanda.projectmanagementbackend.dto.request.CreateProjectRequest;
 import org.magicalpanda.projectmanagementbackend.dto.request.UpdateProjectRequest;
+import org.magicalpanda.projectmanagementbackend.dto.response.CursorPageResponse;
 import org.magicalpanda.projectmanagementbackend.dto.response.ProjectDetailsResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.ProjectMemberResponse;
 import org.magicalpanda.projectmanagementbackend.dto.response.ProjectResponse;
 import org.magicalpanda.projectmanagementbackend.dto.response.ProjectSummaryResponse;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
 import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
+import org.magicalpanda.projectmanagementbackend.service.MembershipService;
 import org.magicalpanda.projectmanagementbackend.service.ProjectService;
+import org.magicalpanda.projectmanagementbackend.util.ResourceVersion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -27,6 +35,7 @@ import java.util.List;
 public class ProjectController {
 
     private final ProjectService projectService;
+    private final MembershipService membershipService;
 
     @PostMapping
     public ResponseEntity<ProjectResponse> createProject(
@@ -46,22 +55,74 @@ public class ProjectController {
             @RequestParam(required = false) List<ProjectStatusFilter> status,
             @PageableDefault(size =  10, sort = "createdAt", direction = Sort.Direction.DESC)
             Pageable pageable,
-            @AuthenticationPrincipal SecurityUser securityUser
+            @AuthenticationPrincipal SecurityUser securityUser,
+            WebRequest webRequest
     ) {
+        ResourceVersion version = projectService.getMyProjectsVersion(securityUser.getId());
+        if (isNotModified(webRequest, version)) {
+            return null; // 304 already written
+        }
+
         Page<ProjectSummaryResponse> projects = projectService.getMyProjects(securityUser.getId(), scope, status, pageable);
 
-        return ResponseEntity.ok(projects);
+        return withValidators(version).body(projects);
+    }
+
+    /**
+     * Cursor mode of the listing, selected by the presence of the cursor parameter
+     * (empty for the first page). Newest first, no totals.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPageResponse<ProjectSummaryResponse>> getMyProjectsByCursor(
+            @RequestParam(required = false, defaultValue = "all") String scope,
+            @RequestParam(required = false) List<ProjectStatusFilter> status,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal SecurityUser securityUser,
+            WebRequest webRequest
+    ) {
+        ResourceVersion version = projectService.getMyProjectsVersion(securityUser.getId());
+        if (isNotModified(webRequest, version)) {
+            return null; // 304 already written
+        }
+
+        CursorPageResponse<ProjectSummaryResponse> projects =
+                projectService.getMyProjectsByCursor(securityUser.getId(), scope, status, cursor, size);
+
+        return withValidators(version).body(projects);
     }
 
     @GetMapping("/{projectId}")
     public ResponseEntity<ProjectDetailsResponse> getProjectById(
             @PathVariable Long projectId,
-            @AuthenticationPrincipal SecurityUser securityUser
+            @AuthenticationPrincipal SecurityUser securityUser,
+            WebRequest webRequest
     ) {
+        ResourceVersion version = projectService.getProjectDetailsVersion(projectId, securityUser.getId()).orElse(null);
+        if (version != null && isNotModified(webRequest, version)) {
+            return null; // 304 already written
+        }
+
         ProjectDetailsResponse response = projectService.getProjectDetails(projectId, securityUser.getId());
-        return ResponseEntity.ok(response);
+        return (version != null) ? withValidators(version).body(response) : ResponseEntity.ok(response);
     }
 
+    /**
+     * Members of the project by role (OWNER, MANAGER, MEMBER), then by id; cursor paginated.
+     */
+    @GetMapping("/{projectId}/members")
+    public ResponseEntity<CursorPageResponse<ProjectMemberResponse>> getProjectMembers(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) List<ProjectRole> role,
+            @RequestParam(defaultValue = "ACTIVE") MembershipStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal SecurityUser securityUser
+    ) {
+        return ResponseEntity.ok(
+                membershipService.getProjectMembers(projectId, securityUser.getId(), role, status, cursor, size)
+        );
+    }
 
     @PatchMapping("/{projectId}")
     public ResponseEntity<Void> updateProject(
@@ -73,4 +134,19 @@ public class ProjectController {
         projectService.updateProject(projectId, securityUser.getId(), request);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Evaluates If-None-Match / If-Modified-Since against the version; on a match the 304 is
+     * written to the response and the handler returns without building a body.
+     */
+    private static boolean isNotModified(WebRequest webRequest, ResourceVersion version) {
+        return webRequest.checkNotModified(version.etag(), version.lastModified().toEpochMilli());
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResourceVersion version) {
+        return ResponseEntity.ok()
+                .eTag(version.etag())
+                .lastModified(version.lastModified())
+                .cacheControl(CacheControl.noCache().cachePrivate());
+    }
 }
@@ -0,0 +1,40 @@
+package org.magicalpanda.projectmanagementbackend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.ProjectStatusFilter;
+import org.magicalpanda.projectmanagementbackend.dto.response.SearchHitResponse;
+import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
+import org.magicalpanda.projectmanagementbackend.service.SearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * Projects and tasks of the caller's projects matching every word of q, best first.
+     */
+    @GetMapping
+    public ResponseEntity<List<SearchHitResponse>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) List<ProjectStatusFilter> status,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal SecurityUser securityUser
+    ) {
+        return ResponseEntity.ok(searchService.search(securityUser.getId(), q, status, size));
+    }
+
+    // Admin only: re-indexes everything from the database, on every node
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Long>> rebuild() {
+        return ResponseEntity.ok(Map.of("indexed", searchService.rebuildAllNodes()));
+    }
+}
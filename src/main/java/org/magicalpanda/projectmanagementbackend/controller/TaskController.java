@@ -0,0 +1,85 @@
+package org.magicalpanda.projectmanagementbackend.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.TaskExportFormat;
+import org.magicalpanda.projectmanagementbackend.dto.request.BulkUpdateTasksRequest;
+import org.magicalpanda.projectmanagementbackend.dto.request.TaskFilter;
+import org.magicalpanda.projectmanagementbackend.dto.response.BulkTaskResultResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.CursorPageResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.TaskResponse;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
+import org.magicalpanda.projectmanagementbackend.service.TaskExportService;
+import org.magicalpanda.projectmanagementbackend.service.TaskService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/projects/{projectId}/tasks")
+@RequiredArgsConstructor
+public class TaskController {
+
+    private final TaskService taskService;
+    private final TaskExportService taskExportService;
+
+    /**
+     * Task board: tasks by status column (TODO, IN_PROGRESS, COMPLETED), then by id; cursor
+     * paginated. Pass a single status to fetch one column.
+     */
+    @GetMapping
+    public ResponseEntity<CursorPageResponse<TaskResponse>> getTasks(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) List<TaskStatus> status,
+            @RequestParam(required = false) List<TaskPriority> priority,
+            @RequestParam(required = false) Long assignee,
+            @RequestParam(required = false) Instant dueFrom,
+            @RequestParam(required = false) Instant dueTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal SecurityUser securityUser
+    ) {
+        TaskFilter filter = new TaskFilter(status, priority, assignee, dueFrom, dueTo);
+
+        return ResponseEntity.ok(taskService.getTasks(projectId, securityUser.getId(), filter, cursor, size));
+    }
+
+    /**
+     * Every task of the project with its assignees, streamed as CSV (default) or NDJSON
+     * whatever the project size; 503 while too many exports are running.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<ResponseBodyEmitter> exportTasks(
+            @PathVariable Long projectId,
+            @RequestParam(defaultValue = "csv") TaskExportFormat format,
+            @AuthenticationPrincipal SecurityUser securityUser
+    ) {
+        ResponseBodyEmitter body = taskExportService.exportTasks(projectId, securityUser.getId(), format);
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("project-" + projectId + "-tasks." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<List<BulkTaskResultResponse>> updateTasks(
+            @PathVariable Long projectId,
+            @Valid @RequestBody BulkUpdateTasksRequest request,
+            @AuthenticationPrincipal SecurityUser securityUser
+    ) {
+        // Per-task outcomes, so 200 even when some tasks were not found
+        return ResponseEntity.ok(taskService.updateTasks(projectId, securityUser.getId(), request));
+    }
+}
@@ -0,0 +1,21 @@
+package org.magicalpanda.projectmanagementbackend.dto.converter;
+
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.TaskExportFormat;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TaskExportFormatConverter
+        implements Converter<String, TaskExportFormat> {
+
+    @Override
+    public TaskExportFormat convert(String source) {
+        try {
+            return TaskExportFormat.valueOf(source.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(
+                    "Invalid export format: " + source
+            );
+        }
+    }
+}
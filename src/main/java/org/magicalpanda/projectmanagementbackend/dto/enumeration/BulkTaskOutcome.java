@@ -0,0 +1,7 @@
+package org.magicalpanda.projectmanagementbackend.dto.enumeration;
+
+public enum BulkTaskOutcome {
+    UPDATED,
+    UNCHANGED, // already had the requested values
+    NOT_FOUND // no such task in the project
+}
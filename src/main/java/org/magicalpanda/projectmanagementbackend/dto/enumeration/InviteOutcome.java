@@ -0,0 +1,8 @@
+package org.magicalpanda.projectmanagementbackend.dto.enumeration;
+
+public enum InviteOutcome {
+    INVITED,
+    REINVITED, // a LEFT or REJECTED membership was set back to PENDING
+    ALREADY_MEMBER, // active or pending already, left untouched
+    USER_NOT_FOUND
+}
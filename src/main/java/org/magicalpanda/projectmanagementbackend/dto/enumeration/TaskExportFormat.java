@@ -0,0 +1,19 @@
+package org.magicalpanda.projectmanagementbackend.dto.enumeration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+@Getter
+@RequiredArgsConstructor
+public enum TaskExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"); // one JSON object per line
+
+    private final String contentType;
+    private final String extension;
+
+    public MediaType getMediaType() {
+        return MediaType.parseMediaType(contentType + ";charset=UTF-8");
+    }
+}
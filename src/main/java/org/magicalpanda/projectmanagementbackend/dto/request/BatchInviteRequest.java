@@ -0,0 +1,21 @@
+package org.magicalpanda.projectmanagementbackend.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class BatchInviteRequest {
+
+    public static final int MAX_USERS = 500;
+
+    @NotNull
+    private Long projectId;
+
+    @NotEmpty
+    @Size(max = MAX_USERS)
+    private List<@NotNull Long> userIds;
+}
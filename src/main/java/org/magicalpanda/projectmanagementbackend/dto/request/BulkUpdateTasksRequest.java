@@ -0,0 +1,30 @@
+package org.magicalpanda.projectmanagementbackend.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Values to set on every listed task; null fields are left unchanged, at least one is required.
+ */
+@Getter
+public class BulkUpdateTasksRequest {
+
+    public static final int MAX_TASKS = 500;
+
+    @NotEmpty
+    @Size(max = MAX_TASKS)
+    private List<@NotNull Long> taskIds;
+
+    private TaskStatus status;
+
+    private TaskPriority priority;
+
+    private Instant dueDate;
+}
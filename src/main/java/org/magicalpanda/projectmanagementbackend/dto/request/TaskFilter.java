@@ -0,0 +1,22 @@
+package org.magicalpanda.projectmanagementbackend.dto.request;
+
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Task board filters; null or empty means no restriction.
+ *
+ * @param dueFrom inclusive lower bound of the due date
+ * @param dueTo   exclusive upper bound of the due date
+ */
+public record TaskFilter(
+        List<TaskStatus> statuses,
+        List<TaskPriority> priorities,
+        Long assigneeId,
+        Instant dueFrom,
+        Instant dueTo
+) {
+}
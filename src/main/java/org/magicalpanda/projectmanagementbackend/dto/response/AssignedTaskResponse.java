@@ -0,0 +1,23 @@
+package org.magicalpanda.projectmanagementbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+
+import java.time.Instant;
+
+@Getter
+@Builder
+@AllArgsConstructor // used by the JPQL constructor projection in TaskAssignmentRepository
+public class AssignedTaskResponse {
+
+    private final Long id;
+    private final String title;
+    private final TaskStatus status;
+    private final TaskPriority priority;
+    private final Instant dueDate;
+    private final Long projectId;
+    private final String projectName;
+}
@@ -0,0 +1,12 @@
+package org.magicalpanda.projectmanagementbackend.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.BulkTaskOutcome;
+
+@Getter
+@Builder
+public class BulkTaskResultResponse {
+    private final Long taskId;
+    private final BulkTaskOutcome outcome;
+}
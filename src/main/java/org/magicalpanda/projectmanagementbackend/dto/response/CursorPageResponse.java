@@ -0,0 +1,19 @@
+package org.magicalpanda.projectmanagementbackend.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) paginated listing.
+ *
+ * No totals: pass nextCursor back as "cursor" to get the following page, null means last page.
+ */
+@Getter
+@Builder
+public class CursorPageResponse<T> {
+    private final List<T> content;
+    private final int size;
+    private final String nextCursor;
+}
@@ -0,0 +1,18 @@
+package org.magicalpanda.projectmanagementbackend.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.InviteOutcome;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+
+/**
+ * Outcome of one user of a batch invite; membershipId and status are null for USER_NOT_FOUND.
+ */
+@Getter
+@Builder
+public class InviteResultResponse {
+    private final Long userId;
+    private final InviteOutcome outcome;
+    private final Long membershipId;
+    private final MembershipStatus status;
+}
@@ -15,4 +15,5 @@ public class ProjectDetailsResponse {
     private final Instant createdAt;
     private final ProjectRole myRole;
     private final Instant joinedAt;
+    private final ProjectStatsResponse stats; // null until the project has a stats row
 }
@@ -0,0 +1,24 @@
+package org.magicalpanda.projectmanagementbackend.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
+
+import java.time.Instant;
+
+@Getter
+@Builder
+@AllArgsConstructor // used by the JPQL constructor projection in MembershipRepository
+public class ProjectMemberResponse {
+
+    private final Long membershipId;
+    private final Long userId;
+    private final String username;
+    private final String firstName;
+    private final String lastName;
+    private final ProjectRole role;
+    private final MembershipStatus status;
+    private final Instant joinedAt;
+}
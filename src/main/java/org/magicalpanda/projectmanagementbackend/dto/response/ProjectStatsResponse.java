@@ -0,0 +1,38 @@
+package org.magicalpanda.projectmanagementbackend.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.magicalpanda.projectmanagementbackend.model.ProjectStats;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Builder
+public class ProjectStatsResponse {
+    private final long activeMembers;
+    private final long pendingInvites;
+    private final Map<TaskStatus, Long> tasksByStatus;
+    private final Map<TaskPriority, Long> tasksByPriority;
+
+    public static ProjectStatsResponse from(ProjectStats stats) {
+        Map<TaskStatus, Long> tasksByStatus = new EnumMap<>(TaskStatus.class);
+        tasksByStatus.put(TaskStatus.TODO, stats.getTasksTodo());
+        tasksByStatus.put(TaskStatus.IN_PROGRESS, stats.getTasksInProgress());
+        tasksByStatus.put(TaskStatus.COMPLETED, stats.getTasksCompleted());
+
+        Map<TaskPriority, Long> tasksByPriority = new EnumMap<>(TaskPriority.class);
+        tasksByPriority.put(TaskPriority.LOW, stats.getTasksLow());
+        tasksByPriority.put(TaskPriority.MEDIUM, stats.getTasksMedium());
+        tasksByPriority.put(TaskPriority.HIGH, stats.getTasksHigh());
+
+        return ProjectStatsResponse.builder()
+                .activeMembers(stats.getActiveMembers())
+                .pendingInvites(stats.getPendingInvites())
+                .tasksByStatus(tasksByStatus)
+                .tasksByPriority(tasksByPriority)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package org.magicalpanda.projectmanagementbackend.dto.response;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
@@ -9,6 +10,7 @@ import java.time.Instant;
 
 @Getter
 @Builder
+@AllArgsConstructor // used by the JPQL constructor projection in MembershipRepository
 public class ProjectSummaryResponse {
 
     private final Long id;
@@ -16,4 +18,6 @@ public class ProjectSummaryResponse {
     private final ProjectRole role; // role of current user against the project
     private final ProjectStatus status;
     private final Instant createdAt;
+    private final Long activeMembers;
+    private final Long openTasks; // TODO + IN_PROGRESS
 }
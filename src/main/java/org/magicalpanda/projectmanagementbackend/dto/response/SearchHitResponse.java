@@ -0,0 +1,15 @@
+package org.magicalpanda.projectmanagementbackend.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.magicalpanda.projectmanagementbackend.search.SearchDocumentType;
+
+@Getter
+@Builder
+public class SearchHitResponse {
+    private final SearchDocumentType type;
+    private final Long id;
+    private final Long projectId;
+    private final String title; // project name for projects
+    private final float score;
+}
@@ -0,0 +1,21 @@
+package org.magicalpanda.projectmanagementbackend.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.magicalpanda.projectmanagementbackend.security.jwt.RefreshTokenStore;
+
+import java.time.Instant;
+
+@Getter
+@Builder
+public class SessionResponse {
+    private final String id;
+    private final Instant expiresAt;
+
+    public static SessionResponse from(RefreshTokenStore.RefreshSession session) {
+        return SessionResponse.builder()
+                .id(session.id())
+                .expiresAt(session.expiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package org.magicalpanda.projectmanagementbackend.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class TaskAssigneeResponse {
+    private final Long userId;
+    private final String username;
+}
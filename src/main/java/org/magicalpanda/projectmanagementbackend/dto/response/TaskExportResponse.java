@@ -0,0 +1,25 @@
+package org.magicalpanda.projectmanagementbackend.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+// One line of an NDJSON task export
+@Getter
+@Builder
+public class TaskExportResponse {
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final TaskStatus status;
+    private final TaskPriority priority;
+    private final Instant dueDate;
+    private final Instant createdAt;
+    private final Instant updatedAt;
+    private final String createdBy;
+    private final List<TaskAssigneeResponse> assignees;
+}
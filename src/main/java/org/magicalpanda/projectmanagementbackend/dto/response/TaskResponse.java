@@ -0,0 +1,21 @@
+package org.magicalpanda.projectmanagementbackend.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Builder
+public class TaskResponse {
+    private final Long id;
+    private final String title;
+    private final TaskStatus status;
+    private final TaskPriority priority;
+    private final Instant dueDate;
+    private final Instant createdAt;
+    private final List<TaskAssigneeResponse> assignees;
+}
@@ -0,0 +1,16 @@
+package org.magicalpanda.projectmanagementbackend.event;
+
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+
+/**
+ * A membership was created or its role or status changed.
+ *
+ * @param previousStatus status before the change, null for a new membership
+ */
+public record MembershipChangedEvent(
+        Long userId,
+        Long projectId,
+        MembershipStatus previousStatus,
+        MembershipStatus status
+) {
+}
@@ -0,0 +1,12 @@
+package org.magicalpanda.projectmanagementbackend.event;
+
+import java.util.List;
+
+/**
+ * Several memberships changed in one transaction, e.g. a batch invite.
+ *
+ * Published once instead of a MembershipChangedEvent per membership, so listeners can
+ * apply the changes together.
+ */
+public record MembershipsChangedEvent(List<MembershipChangedEvent> changes) {
+}
@@ -0,0 +1,20 @@
+package org.magicalpanda.projectmanagementbackend.event;
+
+import org.magicalpanda.projectmanagementbackend.search.SearchDocument;
+import org.magicalpanda.projectmanagementbackend.search.SearchDocumentType;
+
+/**
+ * A project or task was saved or removed.
+ *
+ * @param document the new searchable text, null if removed
+ */
+public record SearchDocumentChangedEvent(SearchDocumentType type, Long id, SearchDocument document) {
+
+    public static SearchDocumentChangedEvent saved(SearchDocument document) {
+        return new SearchDocumentChangedEvent(document.type(), document.id(), document);
+    }
+
+    public static SearchDocumentChangedEvent removed(SearchDocumentType type, Long id) {
+        return new SearchDocumentChangedEvent(type, id, null);
+    }
+}
@@ -0,0 +1,26 @@
+package org.magicalpanda.projectmanagementbackend.event;
+
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+
+/**
+ * A task was created, deleted, or its status or priority changed.
+ *
+ * The previous values are null for a new task, the current ones null for a deleted task.
+ */
+public record TaskChangedEvent(
+        Long projectId,
+        TaskStatus previousStatus,
+        TaskPriority previousPriority,
+        TaskStatus status,
+        TaskPriority priority
+) {
+
+    public static TaskChangedEvent created(Long projectId, TaskStatus status, TaskPriority priority) {
+        return new TaskChangedEvent(projectId, null, null, status, priority);
+    }
+
+    public static TaskChangedEvent deleted(Long projectId, TaskStatus status, TaskPriority priority) {
+        return new TaskChangedEvent(projectId, status, priority, null, null);
+    }
+}
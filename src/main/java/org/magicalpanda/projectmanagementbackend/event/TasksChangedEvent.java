@@ -0,0 +1,12 @@
+package org.magicalpanda.projectmanagementbackend.event;
+
+import java.util.List;
+
+/**
+ * Several tasks changed in one transaction, e.g. a bulk update.
+ *
+ * Published once instead of a TaskChangedEvent per task, so listeners can apply the
+ * changes together.
+ */
+public record TasksChangedEvent(List<TaskChangedEvent> changes) {
+}
@@ -0,0 +1,17 @@
+package org.magicalpanda.projectmanagementbackend.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a bounded resource rejects work; mapped to 503 with a Retry-After header.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
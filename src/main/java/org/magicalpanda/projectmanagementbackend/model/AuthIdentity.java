@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.AuthProvider;
+import org.magicalpanda.projectmanagementbackend.model.id.TimeOrderedId;
 
 import java.time.Instant;
 
@@ -22,7 +23,7 @@ import java.time.Instant;
 public class AuthIdentity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -44,6 +45,7 @@ public class AuthIdentity {
      * Only populated for LOCAL provider
      */
     @Column(name = "password_hash")
+    @Setter
     private String passwordHash;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -6,6 +6,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
+import org.magicalpanda.projectmanagementbackend.model.id.TimeOrderedId;
 
 import java.time.Instant;
 
@@ -14,6 +15,12 @@ import java.time.Instant;
         uniqueConstraints = @UniqueConstraint(
                 columnNames = {"user_id", "project_id"}
         ),
+        indexes = {
+                // My projects listing (page and keyset modes)
+                @Index(name = "idx_memberships_user_status_created", columnList = "user_id, status, created_at, id"),
+                // Members of a project, by status and role
+                @Index(name = "idx_memberships_project_status_role", columnList = "project_id, status, role, id")
+        },
         name = "memberships"
 )
 @Getter
@@ -24,7 +31,7 @@ import java.time.Instant;
 public class Membership {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -5,6 +5,8 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.model.id.TimeOrderedId;
+import org.magicalpanda.projectmanagementbackend.search.SearchIndexEntityListener;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -18,10 +20,11 @@ import java.util.List;
 @Builder
 @ToString(exclude = "memberships") // avoids huge nested lists in logs
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@EntityListeners(SearchIndexEntityListener.class)
 public class Project {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -0,0 +1,64 @@
+package org.magicalpanda.projectmanagementbackend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Denormalized counters of a project, so views never COUNT memberships or tasks.
+ *
+ * Kept up to date by ProjectStatsService: a delta inside each change's transaction, a
+ * startup backfill of missing rows, plus a periodic rebuild that corrects any drift.
+ */
+@Entity
+@Table(name = "project_stats")
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ProjectStats {
+
+    @Id
+    @Column(name = "project_id")
+    @EqualsAndHashCode.Include
+    private Long projectId;
+
+    @Setter
+    @Column(name = "active_members", nullable = false)
+    private long activeMembers;
+
+    @Setter
+    @Column(name = "pending_invites", nullable = false)
+    private long pendingInvites;
+
+    @Setter
+    @Column(name = "tasks_todo", nullable = false)
+    private long tasksTodo;
+
+    @Setter
+    @Column(name = "tasks_in_progress", nullable = false)
+    private long tasksInProgress;
+
+    @Setter
+    @Column(name = "tasks_completed", nullable = false)
+    private long tasksCompleted;
+
+    @Setter
+    @Column(name = "tasks_low", nullable = false)
+    private long tasksLow;
+
+    @Setter
+    @Column(name = "tasks_medium", nullable = false)
+    private long tasksMedium;
+
+    @Setter
+    @Column(name = "tasks_high", nullable = false)
+    private long tasksHigh;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
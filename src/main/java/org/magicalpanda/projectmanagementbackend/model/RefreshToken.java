@@ -4,11 +4,18 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.magicalpanda.projectmanagementbackend.model.id.TimeOrderedId;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(
+        name = "refresh_tokens",
+        indexes = {
+                @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at"),
+                @Index(name = "idx_refresh_tokens_family", columnList = "family_id")
+        }
+)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
@@ -18,7 +25,7 @@ import java.time.Instant;
 public class RefreshToken {
 
     @Id
-    @GeneratedValue
+    @TimeOrderedId
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -28,6 +35,12 @@ public class RefreshToken {
     @Column(nullable = false, unique = true, length = 36)
     private String jti;
 
+    /**
+     * JTI of the login's first token, shared by every token rotated from it.
+     */
+    @Column(name = "family_id", length = 36)
+    private String familyId;
+
     @Column(name = "is_revoked")
     @Setter
     private boolean isRevoked;
@@ -6,23 +6,30 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+import org.magicalpanda.projectmanagementbackend.model.id.TimeOrderedId;
+import org.magicalpanda.projectmanagementbackend.search.SearchIndexEntityListener;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tasks")
+@Table(
+        name = "tasks",
+        // Board columns: a project's tasks of one status, by id
+        indexes = @Index(name = "idx_tasks_project_status", columnList = "project_id, status, id")
+)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
 @Builder
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @ToString(exclude = "assignments")
+@EntityListeners(SearchIndexEntityListener.class)
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     @EqualsAndHashCode.Include
     private Long id;
 
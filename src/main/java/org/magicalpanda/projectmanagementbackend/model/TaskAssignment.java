@@ -3,11 +3,19 @@ package org.magicalpanda.projectmanagementbackend.model;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+import org.magicalpanda.projectmanagementbackend.model.id.TimeOrderedId;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "task_assignments")
+@Table(
+        name = "task_assignments",
+        // A user is assigned to a task once; also the "tasks of an assignee" path, by task id
+        uniqueConstraints = @UniqueConstraint(columnNames = {"assignee_id", "task_id"}),
+        // My tasks feed: an assignee's open tasks by due date
+        indexes = @Index(name = "idx_task_assignments_feed", columnList = "assignee_id, task_open, task_due_date, task_id")
+)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
@@ -17,7 +25,7 @@ import java.time.Instant;
 public class TaskAssignment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -31,8 +39,22 @@ public class TaskAssignment {
     @JoinColumn(name = "assigned_by")
     private User assignedBy;
 
+    // Copies of the task's state, so the feed is one index range however long the history.
+    // Kept in sync by task writes (TaskAssignmentRepository.syncTaskState) and TaskFeedService.
+    @Column(name = "task_open", nullable = false)
+    private boolean taskOpen;
+
+    @Column(name = "task_due_date")
+    private Instant taskDueDate;
+
     @CreationTimestamp
     @Column(updatable = false, nullable = false)
     private Instant createdAt;
 
+    @PrePersist
+    void copyTaskState() {
+        taskOpen = task.getStatus() != TaskStatus.COMPLETED;
+        taskDueDate = task.getDueDate();
+    }
+
 }
@@ -5,12 +5,20 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.VerificationPurpose;
+import org.magicalpanda.projectmanagementbackend.model.id.TimeOrderedId;
 
 import java.time.Instant;
 import java.util.Random;
 
 @Entity
-@Table(name = "verification_codes")
+@Table(
+        name = "verification_codes",
+        indexes = {
+                @Index(name = "idx_verification_codes_expires_at", columnList = "expires_at"),
+                // Latest unused code of a user for a purpose
+                @Index(name = "idx_verification_codes_user_purpose", columnList = "user_id, purpose, is_used, created_at")
+        }
+)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PROTECTED)
@@ -21,7 +29,7 @@ public class VerificationCode {
     private static final Random RANDOM = new Random();
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     @EqualsAndHashCode.Include
     private Long id;
 
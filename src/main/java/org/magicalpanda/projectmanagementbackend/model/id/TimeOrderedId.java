@@ -0,0 +1,20 @@
+package org.magicalpanda.projectmanagementbackend.model.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks an id as assigned by {@link TimeOrderedIdGenerator}: generated in memory before the
+ * insert, so Hibernate can batch inserts (IDENTITY ids force one round trip per row).
+ */
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface TimeOrderedId {
+}
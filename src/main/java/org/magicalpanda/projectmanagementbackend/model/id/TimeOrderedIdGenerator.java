@@ -0,0 +1,134 @@
+package org.magicalpanda.projectmanagementbackend.model.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.query.QueryFlushMode;
+
+import java.lang.reflect.Member;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered 53-bit ids: 41 bits of milliseconds since 2025-01-01 (about 69 years),
+ * 4 bits of worker id and 8 bits of sequence.
+ *
+ * 53 bits keeps ids exact as JSON numbers in JavaScript clients. Ids grow with time, so
+ * inserts append to the primary key index like AUTO_INCREMENT does, and they are larger
+ * than any AUTO_INCREMENT value already stored, so existing tables need no migration.
+ *
+ * Each node needs its own worker id (0-15), set with hibernate.id.time_ordered.worker_id.
+ * There is no default: two nodes falling back to the same id would generate the same keys.
+ * More than 256 ids in one millisecond borrow from the next millisecond instead of waiting.
+ *
+ * The last issued id only lives in memory, so after a restart the clock alone could hand out
+ * ids again: when it was stepped back (NTP correction), or when the node restarts before it has
+ * caught up with borrowed milliseconds. Before its first id, each generator therefore reads the
+ * highest id of this worker at or after the current millisecond in its table, and continues
+ * after it. Ids below the current millisecond can never be generated again, so only that range
+ * is read (a primary key seek).
+ */
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    public static final String WORKER_ID_SETTING = "hibernate.id.time_ordered.worker_id";
+
+    static final long EPOCH_MILLIS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+
+    static final int SEQUENCE_BITS = 8;
+    static final int WORKER_BITS = 4;
+    static final int MAX_WORKER_ID = (1 << WORKER_BITS) - 1;
+
+    // (millis << SEQUENCE_BITS) | sequence of the last id, shared by every entity on this node
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private final long workerBits;
+
+    // Highest id of this worker in the entity's table from a given id on
+    private final String maxIssuedIdQuery;
+    private volatile boolean resumed;
+
+    public TimeOrderedIdGenerator(TimeOrderedId config, Member member, GeneratorCreationContext context) {
+        Object setting = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSettings()
+                .get(WORKER_ID_SETTING);
+
+        this.workerBits = (long) parseWorkerId(setting) << SEQUENCE_BITS;
+
+        String id = context.getProperty().getName();
+        this.maxIssuedIdQuery = "select max(e.%1$s) from %2$s e where e.%1$s >= :from and mod(e.%1$s, :span) between :low and :high"
+                .formatted(id, context.getRootClass().getEntityName());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        if (!resumed) {
+            resume(session);
+        }
+        return nextId(workerBits);
+    }
+
+    // Once per generator: move past ids this worker issued before a restart that the clock has not passed yet
+    private synchronized void resume(SharedSessionContractImplementor session) {
+        if (resumed) {
+            return;
+        }
+
+        long from = (System.currentTimeMillis() - EPOCH_MILLIS) << (SEQUENCE_BITS + WORKER_BITS);
+        Long maxIssued = session.createSelectionQuery(maxIssuedIdQuery, Long.class)
+                .setQueryFlushMode(QueryFlushMode.NO_FLUSH)
+                .setParameter("from", from)
+                .setParameter("span", 1L << (SEQUENCE_BITS + WORKER_BITS))
+                .setParameter("low", workerBits)
+                .setParameter("high", workerBits | ((1L << SEQUENCE_BITS) - 1))
+                .getSingleResult();
+
+        if (maxIssued != null) {
+            advancePast(maxIssued);
+        }
+        resumed = true;
+    }
+
+    static void advancePast(long issuedId) {
+        long millis = issuedId >>> (SEQUENCE_BITS + WORKER_BITS);
+        long sequence = issuedId & ((1L << SEQUENCE_BITS) - 1);
+
+        LAST.accumulateAndGet((millis << SEQUENCE_BITS) | sequence, Math::max);
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    static long nextId(long workerBits) {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+
+        // Monotonic: never behind the clock, always ahead of the previous id (also if the clock steps back)
+        long state = LAST.updateAndGet(last -> Math.max(last + 1, now));
+
+        long millis = state >>> SEQUENCE_BITS;
+        long sequence = state & ((1L << SEQUENCE_BITS) - 1);
+
+        return (millis << (SEQUENCE_BITS + WORKER_BITS)) | workerBits | sequence;
+    }
+
+    static int parseWorkerId(Object setting) {
+        if (setting == null || setting.toString().isBlank()) {
+            throw new IllegalStateException(
+                    WORKER_ID_SETTING + " is not set, every node needs its own worker id (0-" + MAX_WORKER_ID + ")");
+        }
+
+        int workerId = Integer.parseInt(setting.toString().trim());
+
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException(
+                    WORKER_ID_SETTING + " must be between 0 and " + MAX_WORKER_ID + ", was " + workerId);
+        }
+        return workerId;
+    }
+}
@@ -0,0 +1,80 @@
+package org.magicalpanda.projectmanagementbackend.policy;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.model.Membership;
+import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Memberships looked up during the current request, shared by the @PreAuthorize policies and
+ * the services they guard, so each membership (by id or by project and user) is fetched at
+ * most once per request.
+ *
+ * Transactions wrap method security (see TransactionConfig), so the policy and the service
+ * run in one persistence context and the memoized entities are still managed when the service
+ * mutates them. A hit loaded by an earlier transaction of the same request is reloaded rather
+ * than handed out detached.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class MembershipContext {
+
+    private record ProjectUser(Long projectId, Long userId) {}
+
+    private final MembershipRepository membershipRepository;
+    private final EntityManager entityManager;
+
+    private final Map<Long, Optional<Membership>> byId = new HashMap<>();
+    private final Map<ProjectUser, Optional<Membership>> byProjectAndUser = new HashMap<>();
+
+    public Optional<Membership> byId(Long membershipId) {
+        Optional<Membership> cached = byId.get(membershipId);
+
+        if (cached != null && isUsable(cached)) {
+            return cached;
+        }
+
+        Optional<Membership> membership = membershipRepository.findById(membershipId);
+        byId.put(membershipId, membership);
+        membership.ifPresent(this::remember);
+        return membership;
+    }
+
+    /**
+     * The user's membership of the project, whatever its role and status (there is at most one).
+     */
+    public Optional<Membership> of(Long projectId, Long userId) {
+        ProjectUser key = new ProjectUser(projectId, userId);
+        Optional<Membership> cached = byProjectAndUser.get(key);
+
+        if (cached != null && isUsable(cached)) {
+            return cached;
+        }
+
+        Optional<Membership> membership = membershipRepository.findByProjectIdAndUserId(projectId, userId);
+        byProjectAndUser.put(key, membership);
+        membership.ifPresent(m -> byId.put(m.getId(), membership));
+        return membership;
+    }
+
+    /**
+     * Makes a membership created or loaded elsewhere in the request visible to later lookups.
+     */
+    public void remember(Membership membership) {
+        Optional<Membership> entry = Optional.of(membership);
+        byId.put(membership.getId(), entry);
+        // Lazy proxies expose their id without being initialized
+        byProjectAndUser.put(new ProjectUser(membership.getProject().getId(), membership.getUser().getId()), entry);
+    }
+
+    private boolean isUsable(Optional<Membership> cached) {
+        return cached.isEmpty() || entityManager.contains(cached.get());
+    }
+}
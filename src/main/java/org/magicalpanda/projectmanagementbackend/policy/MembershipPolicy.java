@@ -5,7 +5,6 @@ import org.magicalpanda.projectmanagementbackend.exception.ResourceNotFoundExcep
 import org.magicalpanda.projectmanagementbackend.model.Membership;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
-import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
 import org.magicalpanda.projectmanagementbackend.util.SecurityUtils;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.stereotype.Component;
@@ -17,7 +16,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class MembershipPolicy {
 
-    private final MembershipRepository membershipRepository;
+    private final ProjectAccessCache projectAccessCache;
+    private final MembershipContext membershipContext;
 
     public boolean canInvite(Long projectId, Long userId) {
 
@@ -25,12 +25,11 @@ public class MembershipPolicy {
             return true;
         }
 
-        boolean allowed = membershipRepository
-                .existsByProjectIdAndUserIdAndRoleInAndStatus(
+        boolean allowed = projectAccessCache
+                .hasActiveRole(
                         projectId,
                         userId,
-                        List.of(ProjectRole.OWNER, ProjectRole.MANAGER),
-                        MembershipStatus.ACTIVE
+                        List.of(ProjectRole.OWNER, ProjectRole.MANAGER)
                 );
 
         if (!allowed) {
@@ -44,17 +43,17 @@ public class MembershipPolicy {
 
     public boolean canUpdate(Long membershipId, Long actorId) {
 
-        Membership membership = membershipRepository.findById(membershipId)
+        Membership membership = membershipContext.byId(membershipId)
                 .orElseThrow(() -> new ResourceNotFoundException("Membership", membershipId));
 
         if (membership.getStatus().equals(MembershipStatus.LEFT) || membership.getStatus().equals(MembershipStatus.DELETED)) {
             throw new AuthorizationDeniedException("Membership is in invalid state for mutation, current status: " +  membership.getStatus().name());
         }
 
-        Optional<Membership> result = membershipRepository
-                .findByUserIdAndProjectId(
-                        actorId,
-                        membership.getProject().getId()
+        Optional<Membership> result = membershipContext
+                .of(
+                        membership.getProject().getId(),
+                        actorId
                 );
 
         if (result.isEmpty()) {
@@ -0,0 +1,235 @@
+package org.magicalpanda.projectmanagementbackend.policy;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.magicalpanda.projectmanagementbackend.event.MembershipChangedEvent;
+import org.magicalpanda.projectmanagementbackend.event.MembershipsChangedEvent;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
+import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
+import org.magicalpanda.projectmanagementbackend.repository.projection.ProjectAccessRow;
+import org.magicalpanda.projectmanagementbackend.util.LongLongHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Two-level cache of each user's project roles (projectId -> role, status), so
+ * authorization checks usually need no database access.
+ *
+ * L1 is a node-local Caffeine cache bounded by user count, each entry a primitive
+ * LongLongHashMap keyed by project id. L2 is a Redis hash "project-access:{userId}"
+ * shared by all nodes. Both are evicted after a membership change commits; other nodes
+ * drop their L1 entry through pub/sub, and the L1 TTL bounds staleness if a message is
+ * lost. Every eviction bumps "project-access-version:{userId}", and a loader only writes
+ * its database snapshot to Redis if the version is unchanged, so a load racing a change
+ * cannot put stale roles back.
+ */
+@Slf4j
+@Component
+public class ProjectAccessCache implements MessageListener {
+
+    public static final String CHANNEL = "project-access-events";
+
+    private static final String PREFIX = "project-access:";
+    private static final String VERSION_PREFIX = "project-access-version:";
+
+    // Marks a stored snapshot, so a user without memberships is cached as well
+    private static final String LOADED_FIELD = "loaded";
+
+    private static final long NONE = -1L;
+
+    // KEYS: access, version | ARGV: ttl (ms)
+    private static final RedisScript<Long> EVICT = RedisScript.of("""
+            redis.call('DEL', KEYS[1])
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // KEYS: access, version | ARGV: version read before loading ('' if none), ttl (ms), field, value, ...
+    private static final RedisScript<Long> STORE = RedisScript.of("""
+            if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] then return 0 end
+            redis.call('HSET', KEYS[1], unpack(ARGV, 3))
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final MembershipRepository membershipRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration redisTtl;
+    private final Cache<Long, LongLongHashMap> local;
+
+    public ProjectAccessCache(
+            MembershipRepository membershipRepository,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.project-access-cache.max-size:10000}") long maxSize,
+            @Value("${app.project-access-cache.local-ttl:60s}") Duration localTtl,
+            @Value("${app.project-access-cache.redis-ttl:10m}") Duration redisTtl
+    ) {
+        this.membershipRepository = membershipRepository;
+        this.redisTemplate = redisTemplate;
+        this.redisTtl = redisTtl;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "project-access");
+    }
+
+    /**
+     * Whether the user is an active member of the project with one of the given roles.
+     */
+    public boolean hasActiveRole(Long projectId, Long userId, Collection<ProjectRole> roles) {
+        // Maps are never mutated once cached, so concurrent reads are safe
+        long access = local.get(userId, this::load).get(projectId, NONE);
+
+        return access != NONE
+                && statusOf(access) == MembershipStatus.ACTIVE
+                && roles.contains(roleOf(access));
+    }
+
+    /**
+     * Drops the user's roles from both levels and from the L1 of every other node.
+     */
+    public void evict(Long userId) {
+        local.invalidate(userId);
+
+        try {
+            redisTemplate.execute(
+                    EVICT,
+                    List.of(PREFIX + userId, VERSION_PREFIX + userId),
+                    Long.toString(redisTtl.toMillis())
+            );
+            redisTemplate.convertAndSend(CHANNEL, userId.toString());
+        } catch (RuntimeException ex) {
+            log.warn("Could not evict project roles of user {} from Redis", userId, ex);
+        }
+    }
+
+    // Runs without a transaction too, e.g. when the change was made outside of one
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        evict(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMembershipsChanged(MembershipsChangedEvent event) {
+        event.changes().stream()
+                .map(MembershipChangedEvent::userId)
+                .distinct()
+                .forEach(this::evict);
+    }
+
+    // Evictions published by other nodes
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        local.invalidate(Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8)));
+    }
+
+    private LongLongHashMap load(Long userId) {
+        String key = PREFIX + userId;
+        String version = null;
+        boolean redisAvailable = true;
+
+        // 1. Redis
+        try {
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(key);
+            if (!entries.isEmpty()) {
+                return fromRedis(entries);
+            }
+            version = redisTemplate.opsForValue().get(VERSION_PREFIX + userId);
+        } catch (RuntimeException ex) {
+            redisAvailable = false;
+            log.warn("Could not read project roles of user {} from Redis", userId, ex);
+        }
+
+        // 2. Database
+        List<ProjectAccessRow> rows = membershipRepository.findProjectAccess(userId);
+
+        LongLongHashMap access = new LongLongHashMap(rows.size());
+        for (ProjectAccessRow row : rows) {
+            access.put(row.projectId(), pack(row.role(), row.status()));
+        }
+
+        // 3. Share the snapshot, unless the roles changed while it was loaded
+        if (redisAvailable) {
+            try {
+                redisTemplate.execute(
+                        STORE,
+                        List.of(key, VERSION_PREFIX + userId),
+                        toRedisArgs(version, rows).toArray()
+                );
+            } catch (RuntimeException ex) {
+                log.warn("Could not write project roles of user {} to Redis", userId, ex);
+            }
+        }
+
+        return access;
+    }
+
+    private List<String> toRedisArgs(String version, List<ProjectAccessRow> rows) {
+        List<String> args = new ArrayList<>(2 + 2 * (rows.size() + 1));
+        args.add(version == null ? "" : version);
+        args.add(Long.toString(redisTtl.toMillis()));
+        args.add(LOADED_FIELD);
+        args.add("1");
+
+        for (ProjectAccessRow row : rows) {
+            args.add(row.projectId().toString());
+            args.add(row.role().name() + ":" + row.status().name());
+        }
+        return args;
+    }
+
+    private static LongLongHashMap fromRedis(Map<Object, Object> entries) {
+        LongLongHashMap access = new LongLongHashMap(entries.size());
+
+        entries.forEach((field, value) -> {
+            if (LOADED_FIELD.equals(field)) {
+                return;
+            }
+            String roleAndStatus = (String) value;
+            int separator = roleAndStatus.indexOf(':');
+
+            access.put(
+                    Long.parseLong((String) field),
+                    pack(
+                            ProjectRole.valueOf(roleAndStatus.substring(0, separator)),
+                            MembershipStatus.valueOf(roleAndStatus.substring(separator + 1))
+                    )
+            );
+        });
+        return access;
+    }
+
+    // Role ordinal in the high half, status ordinal in the low half
+    private static long pack(ProjectRole role, MembershipStatus status) {
+        return ((long) role.ordinal() << 32) | status.ordinal();
+    }
+
+    private static ProjectRole roleOf(long access) {
+        return ProjectRole.values()[(int) (access >>> 32)];
+    }
+
+    private static MembershipStatus statusOf(long access) {
+        return MembershipStatus.values()[(int) access];
+    }
+}
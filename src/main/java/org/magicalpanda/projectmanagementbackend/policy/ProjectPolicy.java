@@ -6,7 +6,6 @@ import org.magicalpanda.projectmanagementbackend.dto.enumeration.ProjectStatusFi
 import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
-import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
 import org.magicalpanda.projectmanagementbackend.util.SecurityUtils;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.security.core.Authentication;
@@ -19,7 +18,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ProjectPolicy {
 
-    private final MembershipRepository  membershipRepository;
+    private final ProjectAccessCache projectAccessCache;
 
     private static final List<ProjectStatus> DEFAULT_VISIBLE_STATUSES =
             List.of(ProjectStatus.IN_PROGRESS, ProjectStatus.COMPLETED);
@@ -57,16 +56,15 @@ public class ProjectPolicy {
     }
 
     public boolean canViewProject(Long projectId, Long userId) {
-        boolean allowed = SecurityUtils.isAdmin() || membershipRepository
-                .existsByProjectIdAndUserIdAndRoleInAndStatus(
+        boolean allowed = SecurityUtils.isAdmin() || projectAccessCache
+                .hasActiveRole(
                         projectId,
                         userId,
                         List.of(
                                 ProjectRole.OWNER,
                                 ProjectRole.MANAGER,
                                 ProjectRole.MEMBER
-                        ),
-                        MembershipStatus.ACTIVE
+                        )
                 );
 
         if (!allowed) {
@@ -76,17 +74,57 @@ public class ProjectPolicy {
         return true;
     }
 
+    // Active members are visible to every member, invites and former members only to owners and managers
+    public boolean canViewMembers(Long projectId, Long userId, MembershipStatus status) {
+
+        if (status == MembershipStatus.ACTIVE) {
+            return canViewProject(projectId, userId);
+        }
+
+        boolean allowed = SecurityUtils.isAdmin() || projectAccessCache
+                .hasActiveRole(
+                        projectId,
+                        userId,
+                        List.of(ProjectRole.OWNER, ProjectRole.MANAGER)
+                );
+
+        if (!allowed) {
+            throw new AuthorizationDeniedException("You ain't no admin, owner or manager to view " + status + " members </3");
+        }
+
+        return true;
+    }
+
+    // Every active member works on the board
+    public boolean canUpdateTasks(Long projectId, Long userId) {
+        boolean allowed = SecurityUtils.isAdmin() || projectAccessCache
+                .hasActiveRole(
+                        projectId,
+                        userId,
+                        List.of(
+                                ProjectRole.OWNER,
+                                ProjectRole.MANAGER,
+                                ProjectRole.MEMBER
+                        )
+                );
+
+        if (!allowed) {
+            throw new AuthorizationDeniedException("You ain't no admin or member to update tasks of the project </3");
+        }
+
+        return true;
+    }
+
     public boolean canUpdateProject(Long projectId, Long userId) {
 
         if (SecurityUtils.isAdmin()) {
             return true;
         }
 
-        boolean allowed =  membershipRepository.existsByProjectIdAndUserIdAndRoleInAndStatus(
+        boolean allowed = projectAccessCache.hasActiveRole(
                 projectId,
                 userId,
-                List.of(ProjectRole.OWNER, ProjectRole.MANAGER),
-                MembershipStatus.ACTIVE
+                List.of(ProjectRole.OWNER, ProjectRole.MANAGER)
         );
 
         if (!allowed) {
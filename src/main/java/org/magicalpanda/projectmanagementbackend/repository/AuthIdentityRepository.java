@@ -3,6 +3,8 @@ package org.magicalpanda.projectmanagementbackend.repository;
 import org.magicalpanda.projectmanagementbackend.model.AuthIdentity;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.AuthProvider;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -11,4 +13,15 @@ public interface AuthIdentityRepository extends JpaRepository<AuthIdentity, Long
     boolean existsByProviderAndProviderUserId(AuthProvider provider, String providerUserId);
 
     Optional<AuthIdentity> findByProviderAndProviderUserId(AuthProvider provider, String providerUserId);
+
+    // Identity and its user in one statement (login path)
+    @Query("""
+            select ai from AuthIdentity ai
+            join fetch ai.user
+            where ai.provider = :provider and ai.providerUserId = :providerUserId
+            """)
+    Optional<AuthIdentity> findWithUserByProviderAndProviderUserId(
+            @Param("provider") AuthProvider provider,
+            @Param("providerUserId") String providerUserId
+    );
 }
@@ -1,46 +1,175 @@
 package org.magicalpanda.projectmanagementbackend.repository;
 
+import org.magicalpanda.projectmanagementbackend.dto.response.ProjectMemberResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.ProjectSummaryResponse;
 import org.magicalpanda.projectmanagementbackend.model.Membership;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.repository.projection.MembershipCountRow;
+import org.magicalpanda.projectmanagementbackend.repository.projection.ProjectAccessRow;
+import org.magicalpanda.projectmanagementbackend.repository.projection.ProjectSummaryRow;
+import org.magicalpanda.projectmanagementbackend.repository.projection.ProjectVersionRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface MembershipRepository extends JpaRepository<Membership, Long> {
 
-    Page<Membership> findByUserIdAndStatusAndProject_StatusIn(
-            Long userId,
-            MembershipStatus status,
-            Collection<ProjectStatus> projectStatuses,
+    /**
+     * Projects the user is an active member of, with the user's role, projected straight into
+     * ProjectSummaryResponse: one joined select (plus a count) per page, no entity loading.
+     * Counters come from project_stats by primary key.
+     * Sort properties resolve against the membership (e.g. createdAt = joined order).
+     */
+    @Query(
+            value = """
+                    select new org.magicalpanda.projectmanagementbackend.dto.response.ProjectSummaryResponse(
+                        p.id, p.name, m.role, p.status, p.createdAt,
+                        coalesce(s.activeMembers, 0L), coalesce(s.tasksTodo + s.tasksInProgress, 0L)
+                    )
+                    from Membership m join m.project p
+                    left join ProjectStats s on s.projectId = p.id
+                    where m.user.id = :userId
+                      and m.status = :status
+                      and m.role in :roles
+                      and p.status in :projectStatuses
+                    """,
+            countQuery = """
+                    select count(m)
+                    from Membership m join m.project p
+                    where m.user.id = :userId
+                      and m.status = :status
+                      and m.role in :roles
+                      and p.status in :projectStatuses
+                    """
+    )
+    Page<ProjectSummaryResponse> findProjectSummaries(
+            @Param("userId") Long userId,
+            @Param("status") MembershipStatus status,
+            @Param("roles") Collection<ProjectRole> roles,
+            @Param("projectStatuses") Collection<ProjectStatus> projectStatuses,
             Pageable pageable
     );
 
-    Page<Membership> findByUserIdAndRoleAndStatusAndProject_StatusIn(
-            Long userId,
-            ProjectRole role,
-            MembershipStatus status,
-            Collection<ProjectStatus> projectStatuses,
+    /**
+     * Keyset variant of findProjectSummaries: the rows after (createdAt, id), newest first.
+     * Seeks on idx_memberships_user_status_created, no offset and no count query; only the
+     * page size of the Pageable is used.
+     */
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.ProjectSummaryRow(
+                p.id, p.name, m.role, p.status, p.createdAt,
+                coalesce(s.activeMembers, 0L), coalesce(s.tasksTodo + s.tasksInProgress, 0L),
+                m.createdAt, m.id
+            )
+            from Membership m join m.project p
+            left join ProjectStats s on s.projectId = p.id
+            where m.user.id = :userId
+              and m.status = :status
+              and (m.createdAt < :createdAt or (m.createdAt = :createdAt and m.id < :id))
+              and m.role in :roles
+              and p.status in :projectStatuses
+            order by m.createdAt desc, m.id desc
+            """)
+    List<ProjectSummaryRow> findProjectSummariesBefore(
+            @Param("userId") Long userId,
+            @Param("status") MembershipStatus status,
+            @Param("roles") Collection<ProjectRole> roles,
+            @Param("projectStatuses") Collection<ProjectStatus> projectStatuses,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
             Pageable pageable
     );
 
-    Page<Membership> findByUserIdAndRoleInAndStatusAndProject_StatusIn(
-            Long userId,
-            Collection<ProjectRole> roles,
-            MembershipStatus status,
-            Collection<ProjectStatus> projectStatuses,
-            Pageable pageable
-    );
+    /**
+     * Version probe of the user's project listing. Covers every membership of the user, not
+     * only the listed ones, so leaving or joining a project changes it too.
+     */
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.ProjectVersionRow(
+                count(m), max(p.updatedAt), max(m.updatedAt), max(s.updatedAt)
+            )
+            from Membership m join m.project p
+            left join ProjectStats s on s.projectId = p.id
+            where m.user.id = :userId
+            """)
+    ProjectVersionRow findListingVersion(@Param("userId") Long userId);
 
-    Optional<Membership> findByUserIdAndProjectId(Long userId, Long projectId);
+    // Stats rebuild: membership counts per project and status
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.MembershipCountRow(
+                m.project.id, m.status, count(m)
+            )
+            from Membership m
+            where m.project.id in :projectIds
+            group by m.project.id, m.status
+            """)
+    List<MembershipCountRow> countByProject(@Param("projectIds") Collection<Long> projectIds);
 
-    boolean existsByProjectIdAndUserIdAndRoleInAndStatus(Long projectId, Long userId, Collection<ProjectRole> roles, MembershipStatus status);
+    /**
+     * Role and status of every membership of the user, for ProjectAccessCache. Seeks on
+     * idx_memberships_user_status_created.
+     */
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.ProjectAccessRow(
+                m.project.id, m.role, m.status
+            )
+            from Membership m
+            where m.user.id = :userId
+            """)
+    List<ProjectAccessRow> findProjectAccess(@Param("userId") Long userId);
 
+    /**
+     * The user's membership of the project, whatever its status. Read through MembershipContext
+     * in request code, so policies and services share one lookup.
+     */
     Optional<Membership> findByProjectIdAndUserId(Long projectId, Long userId);
 
-    Optional<Membership> findByProjectIdAndUserIdAndStatus(Long projectId, Long userId, MembershipStatus status);
+    List<Membership> findByProjectIdAndUserIdIn(Long projectId, Collection<Long> userIds);
+
+    // Projects whose content the user may search
+    @Query("""
+            select m.project.id
+            from Membership m join m.project p
+            where m.user.id = :userId
+              and m.status = :status
+              and p.status in :projectStatuses
+            """)
+    List<Long> findProjectIds(
+            @Param("userId") Long userId,
+            @Param("status") MembershipStatus status,
+            @Param("projectStatuses") Collection<ProjectStatus> projectStatuses
+    );
+
+    /**
+     * One role group of a project's member listing: the members after afterId, by id.
+     * A range of idx_memberships_project_status_role read in index order, with the user's
+     * display fields joined in; only the page size of the Pageable is used.
+     */
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.dto.response.ProjectMemberResponse(
+                m.id, u.id, u.username, u.firstName, u.lastName, m.role, m.status, m.JoinedAt
+            )
+            from Membership m join m.user u
+            where m.project.id = :projectId
+              and m.status = :status
+              and m.role = :role
+              and m.id > :afterId
+            order by m.id
+            """)
+    List<ProjectMemberResponse> findMembersAfter(
+            @Param("projectId") Long projectId,
+            @Param("status") MembershipStatus status,
+            @Param("role") ProjectRole role,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
 }
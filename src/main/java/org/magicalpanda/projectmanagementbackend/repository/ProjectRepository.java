@@ -2,12 +2,72 @@ package org.magicalpanda.projectmanagementbackend.repository;
 
 import org.magicalpanda.projectmanagementbackend.model.Project;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.repository.projection.ProjectVersionRow;
+import org.magicalpanda.projectmanagementbackend.repository.projection.SearchTextRow;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ProjectRepository extends JpaRepository<Project, Long> {
 
     Optional<Project> findByIdAndStatusIn(Long id, Collection<ProjectStatus> statuses);
+
+    /**
+     * Version probe of GET /api/projects/{id} as seen by the user: one row read by primary
+     * and unique keys, no entity loaded. Empty if the project is not visible.
+     */
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.ProjectVersionRow(
+                1L, p.updatedAt, m.updatedAt, s.updatedAt
+            )
+            from Project p
+            left join Membership m on m.project = p and m.user.id = :userId
+            left join ProjectStats s on s.projectId = p.id
+            where p.id = :projectId
+              and p.status in :statuses
+            """)
+    Optional<ProjectVersionRow> findDetailsVersion(
+            @Param("projectId") Long projectId,
+            @Param("userId") Long userId,
+            @Param("statuses") Collection<ProjectStatus> statuses
+    );
+
+    // Keyset walk over all projects, for background jobs
+    @Query("select p.id from Project p where p.id > :afterId order by p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable batch);
+
+    // Keyset walk over projects that have no stats row yet, for the startup backfill
+    @Query("""
+            select p.id from Project p
+            where p.id > :afterId
+              and not exists (select 1 from ProjectStats s where s.projectId = p.id)
+            order by p.id
+            """)
+    List<Long> findIdsWithoutStatsAfter(@Param("afterId") Long afterId, Pageable batch);
+
+    // Keyset walk over the searchable text of all projects, for the search index rebuild
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.SearchTextRow(
+                p.id, p.id, p.name, p.description
+            )
+            from Project p
+            where p.id > :afterId
+            order by p.id
+            """)
+    List<SearchTextRow> findSearchTextAfter(@Param("afterId") Long afterId, Pageable batch);
+
+    // Current searchable text of one project, for changes made on another node
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.SearchTextRow(
+                p.id, p.id, p.name, p.description
+            )
+            from Project p
+            where p.id = :id
+            """)
+    Optional<SearchTextRow> findSearchText(@Param("id") Long id);
 }
@@ -0,0 +1,51 @@
+package org.magicalpanda.projectmanagementbackend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.magicalpanda.projectmanagementbackend.model.ProjectStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProjectStatsRepository extends JpaRepository<ProjectStats, Long> {
+
+    // Rows a rebuild is about to overwrite, locked in id order (the order deltas lock them in)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ProjectStats s where s.projectId in :projectIds order by s.projectId")
+    List<ProjectStats> findAllForUpdate(@Param("projectIds") Collection<Long> projectIds);
+
+    /**
+     * Adds the deltas in one atomic update, so concurrent changes never overwrite each other.
+     *
+     * @return 0 if the project has no stats row yet (the startup backfill or next rebuild creates it)
+     */
+    @Modifying
+    @Query("""
+            update ProjectStats s set
+                s.activeMembers = s.activeMembers + :activeMembers,
+                s.pendingInvites = s.pendingInvites + :pendingInvites,
+                s.tasksTodo = s.tasksTodo + :tasksTodo,
+                s.tasksInProgress = s.tasksInProgress + :tasksInProgress,
+                s.tasksCompleted = s.tasksCompleted + :tasksCompleted,
+                s.tasksLow = s.tasksLow + :tasksLow,
+                s.tasksMedium = s.tasksMedium + :tasksMedium,
+                s.tasksHigh = s.tasksHigh + :tasksHigh,
+                s.updatedAt = instant
+            where s.projectId = :projectId
+            """)
+    int applyDelta(
+            @Param("projectId") Long projectId,
+            @Param("activeMembers") long activeMembers,
+            @Param("pendingInvites") long pendingInvites,
+            @Param("tasksTodo") long tasksTodo,
+            @Param("tasksInProgress") long tasksInProgress,
+            @Param("tasksCompleted") long tasksCompleted,
+            @Param("tasksLow") long tasksLow,
+            @Param("tasksMedium") long tasksMedium,
+            @Param("tasksHigh") long tasksHigh
+    );
+}
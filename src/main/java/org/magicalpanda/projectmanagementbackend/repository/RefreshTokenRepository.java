@@ -1,11 +1,57 @@
 package org.magicalpanda.projectmanagementbackend.repository;
 
 import org.magicalpanda.projectmanagementbackend.model.RefreshToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
     Optional<RefreshToken> findByJti(String jti);
+
+    // Token and its user in one statement (refresh path)
+    @Query("select rt from RefreshToken rt join fetch rt.user where rt.jti = :jti")
+    Optional<RefreshToken> findWithUserByJti(@Param("jti") String jti);
+
+    boolean existsByJti(String jti);
+
+    List<RefreshToken> findByUserIdAndIsRevokedFalseAndExpiresAtAfter(Long userId, Instant now);
+
+    @Modifying
+    @Query("update RefreshToken rt set rt.isRevoked = true where rt.jti = :jti and rt.isRevoked = false")
+    int revokeByJti(@Param("jti") String jti);
+
+    // Rotation claim: only one concurrent caller can flip an active token, the row count tells who won.
+    // Clears the persistence context so a failed claim is diagnosed from the database state.
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update RefreshToken rt set rt.isRevoked = true
+            where rt.jti = :jti and rt.isRevoked = false and rt.expiresAt > :now
+            """)
+    int revokeIfActive(@Param("jti") String jti, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update RefreshToken rt set rt.isRevoked = true where rt.familyId = :familyId and rt.isRevoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("update RefreshToken rt set rt.isRevoked = true where rt.user.id = :userId and rt.isRevoked = false")
+    int revokeAllByUserId(@Param("userId") Long userId);
+
+    // Retention: one batch of expired rows, oldest first (idx_refresh_tokens_expires_at)
+    @Query("select rt.id from RefreshToken rt where rt.expiresAt < :cutoff order by rt.expiresAt")
+    List<Long> findExpiredIds(@Param("cutoff") Instant cutoff, Pageable batch);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken rt where rt.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
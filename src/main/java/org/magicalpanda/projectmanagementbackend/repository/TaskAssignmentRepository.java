@@ -0,0 +1,112 @@
+package org.magicalpanda.projectmanagementbackend.repository;
+
+import org.magicalpanda.projectmanagementbackend.dto.response.AssignedTaskResponse;
+import org.magicalpanda.projectmanagementbackend.model.TaskAssignment;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.repository.projection.TaskAssigneeRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskAssignmentRepository extends JpaRepository<TaskAssignment, Long> {
+
+    // Assignees of a page of tasks in one query, in assignment order
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.TaskAssigneeRow(
+                a.task.id, u.id, u.username
+            )
+            from TaskAssignment a join a.assignee u
+            where a.task.id in :taskIds
+            order by a.createdAt
+            """)
+    List<TaskAssigneeRow> findAssignees(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * The user's open tasks with a due date after (dueDate, taskId), soonest first. A range of
+     * idx_task_assignments_feed read in index order, so completed history is never read; task
+     * and project are joined by primary key for display and project visibility, and the
+     * user's membership by its unique key, so projects they have left or were removed from
+     * drop out of the feed.
+     */
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.dto.response.AssignedTaskResponse(
+                t.id, t.title, t.status, t.priority, t.dueDate, p.id, p.name
+            )
+            from TaskAssignment a join a.task t join t.project p
+            join Membership m on m.project = p
+                and m.user.id = :userId
+                and m.status = org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus.ACTIVE
+            where a.assignee.id = :userId
+              and a.taskOpen = true
+              and (a.taskDueDate > :dueDate or (a.taskDueDate = :dueDate and a.task.id > :afterId))
+              and p.status in :projectStatuses
+            order by a.taskDueDate, a.task.id
+            """)
+    List<AssignedTaskResponse> findOpenDatedAfter(
+            @Param("userId") Long userId,
+            @Param("projectStatuses") Collection<ProjectStatus> projectStatuses,
+            @Param("dueDate") Instant dueDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    // The user's open tasks without a due date after afterId, listed after the dated ones
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.dto.response.AssignedTaskResponse(
+                t.id, t.title, t.status, t.priority, t.dueDate, p.id, p.name
+            )
+            from TaskAssignment a join a.task t join t.project p
+            join Membership m on m.project = p
+                and m.user.id = :userId
+                and m.status = org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus.ACTIVE
+            where a.assignee.id = :userId
+              and a.taskOpen = true
+              and a.taskDueDate is null
+              and a.task.id > :afterId
+              and p.status in :projectStatuses
+            order by a.task.id
+            """)
+    List<AssignedTaskResponse> findOpenUndatedAfter(
+            @Param("userId") Long userId,
+            @Param("projectStatuses") Collection<ProjectStatus> projectStatuses,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    /**
+     * Copies the current state of the tasks onto their assignments (see TaskAssignment.taskOpen).
+     * Run after every task write that changes a status or due date.
+     */
+    @Modifying
+    @Query("""
+            update TaskAssignment a set
+                a.taskOpen = (
+                    select case when t.status = org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus.COMPLETED
+                        then false else true end
+                    from Task t where t.id = a.task.id
+                ),
+                a.taskDueDate = (select t.dueDate from Task t where t.id = a.task.id)
+            where a.task.id in :taskIds
+            """)
+    int syncTaskState(@Param("taskIds") Collection<Long> taskIds);
+
+    // syncTaskState for every task of the projects, used by TaskFeedService
+    @Modifying
+    @Query("""
+            update TaskAssignment a set
+                a.taskOpen = (
+                    select case when t.status = org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus.COMPLETED
+                        then false else true end
+                    from Task t where t.id = a.task.id
+                ),
+                a.taskDueDate = (select t.dueDate from Task t where t.id = a.task.id)
+            where a.task.id in (select t.id from Task t where t.project.id in :projectIds)
+            """)
+    int syncTaskStateOfProjects(@Param("projectIds") Collection<Long> projectIds);
+}
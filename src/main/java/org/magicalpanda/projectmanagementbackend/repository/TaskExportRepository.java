@@ -0,0 +1,19 @@
+package org.magicalpanda.projectmanagementbackend.repository;
+
+import org.magicalpanda.projectmanagementbackend.repository.projection.TaskExportRow;
+
+import java.util.stream.Stream;
+
+/**
+ * TaskRepository fragment for the task export, whose fetch size is configured per database
+ * (app.task-export.fetch-size) and so cannot be a static query hint.
+ */
+public interface TaskExportRepository {
+
+    /**
+     * Every task of the project with its assignees, one row per assignment, consecutive per
+     * task, read forward-only. The caller must consume and close the stream inside a
+     * transaction.
+     */
+    Stream<TaskExportRow> streamForExport(Long projectId);
+}
@@ -0,0 +1,45 @@
+package org.magicalpanda.projectmanagementbackend.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.magicalpanda.projectmanagementbackend.repository.projection.TaskExportRow;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.stream.Stream;
+
+class TaskExportRepositoryImpl implements TaskExportRepository {
+
+    private static final String EXPORT_QUERY = """
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.TaskExportRow(
+                t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.createdAt, t.updatedAt,
+                c.username, u.id, u.username
+            )
+            from Task t
+            join t.createdBy c
+            left join t.assignments a
+            left join a.assignee u
+            where t.project.id = :projectId
+            order by t.id
+            """;
+
+    private final EntityManager entityManager;
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream this one result row by row
+    private final int fetchSize;
+
+    TaskExportRepositoryImpl(
+            EntityManager entityManager,
+            @Value("${app.task-export.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize
+    ) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public Stream<TaskExportRow> streamForExport(Long projectId) {
+        return entityManager.createQuery(EXPORT_QUERY, TaskExportRow.class)
+                .setParameter("projectId", projectId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,148 @@
+package org.magicalpanda.projectmanagementbackend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.magicalpanda.projectmanagementbackend.model.Task;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+import org.magicalpanda.projectmanagementbackend.repository.projection.TaskBoardRow;
+import org.magicalpanda.projectmanagementbackend.repository.projection.SearchTextRow;
+import org.magicalpanda.projectmanagementbackend.repository.projection.TaskCountRow;
+import org.magicalpanda.projectmanagementbackend.repository.projection.TaskStateRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskExportRepository {
+
+    // Stats rebuild: task counts per project, status and priority
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.TaskCountRow(
+                t.project.id, t.status, t.priority, count(t)
+            )
+            from Task t
+            where t.project.id in :projectIds
+            group by t.project.id, t.status, t.priority
+            """)
+    List<TaskCountRow> countByProject(@Param("projectIds") Collection<Long> projectIds);
+
+    /**
+     * One board column: the project's tasks with the status after afterId, by id. A range of
+     * idx_tasks_project_status read in index order; priority and due date are filtered within
+     * it. Only the page size of the Pageable is used.
+     */
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.TaskBoardRow(
+                t.id, t.title, t.status, t.priority, t.dueDate, t.createdAt
+            )
+            from Task t
+            where t.project.id = :projectId
+              and t.status = :status
+              and t.id > :afterId
+              and t.priority in :priorities
+              and (:dueFrom is null or t.dueDate >= :dueFrom)
+              and (:dueTo is null or t.dueDate < :dueTo)
+            order by t.id
+            """)
+    List<TaskBoardRow> findBoardTasksAfter(
+            @Param("projectId") Long projectId,
+            @Param("status") TaskStatus status,
+            @Param("priorities") Collection<TaskPriority> priorities,
+            @Param("dueFrom") Instant dueFrom,
+            @Param("dueTo") Instant dueTo,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    /**
+     * findBoardTasksAfter for one assignee, driven by the assignee's assignments (unique key
+     * assignee_id, task_id) instead of the whole column, so a user with a handful of tasks on
+     * a large board is still a short range.
+     */
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.TaskBoardRow(
+                t.id, t.title, t.status, t.priority, t.dueDate, t.createdAt
+            )
+            from TaskAssignment a join a.task t
+            where a.assignee.id = :assigneeId
+              and a.task.id > :afterId
+              and t.project.id = :projectId
+              and t.status = :status
+              and t.priority in :priorities
+              and (:dueFrom is null or t.dueDate >= :dueFrom)
+              and (:dueTo is null or t.dueDate < :dueTo)
+            order by a.task.id
+            """)
+    List<TaskBoardRow> findAssignedBoardTasksAfter(
+            @Param("projectId") Long projectId,
+            @Param("assigneeId") Long assigneeId,
+            @Param("status") TaskStatus status,
+            @Param("priorities") Collection<TaskPriority> priorities,
+            @Param("dueFrom") Instant dueFrom,
+            @Param("dueTo") Instant dueTo,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    /**
+     * Current values of the listed tasks of the project, row-locked until commit so the change
+     * events of a bulk update describe exactly what the update replaced.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.TaskStateRow(
+                t.id, t.status, t.priority, t.dueDate
+            )
+            from Task t
+            where t.project.id = :projectId
+              and t.id in :ids
+            """)
+    List<TaskStateRow> findStatesForUpdate(@Param("projectId") Long projectId, @Param("ids") Collection<Long> ids);
+
+    // Set-based bulk update, null values are left unchanged
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Task t set
+                t.status = coalesce(:status, t.status),
+                t.priority = coalesce(:priority, t.priority),
+                t.dueDate = coalesce(:dueDate, t.dueDate),
+                t.updatedAt = instant
+            where t.project.id = :projectId
+              and t.id in :ids
+            """)
+    int updateAll(
+            @Param("projectId") Long projectId,
+            @Param("ids") Collection<Long> ids,
+            @Param("status") TaskStatus status,
+            @Param("priority") TaskPriority priority,
+            @Param("dueDate") Instant dueDate
+    );
+
+    // Keyset walk over the searchable text of all tasks, for the search index rebuild
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.SearchTextRow(
+                t.id, t.project.id, t.title, t.description
+            )
+            from Task t
+            where t.id > :afterId
+            order by t.id
+            """)
+    List<SearchTextRow> findSearchTextAfter(@Param("afterId") Long afterId, Pageable batch);
+
+    // Current searchable text of one task, for changes made on another node
+    @Query("""
+            select new org.magicalpanda.projectmanagementbackend.repository.projection.SearchTextRow(
+                t.id, t.project.id, t.title, t.description
+            )
+            from Task t
+            where t.id = :id
+            """)
+    Optional<SearchTextRow> findSearchText(@Param("id") Long id);
+}
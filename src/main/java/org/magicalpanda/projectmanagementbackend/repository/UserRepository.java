@@ -2,7 +2,11 @@ package org.magicalpanda.projectmanagementbackend.repository;
 
 import org.magicalpanda.projectmanagementbackend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -13,4 +17,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+
+    // Existence check for many users at once, without loading them
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
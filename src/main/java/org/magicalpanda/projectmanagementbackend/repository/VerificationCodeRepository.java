@@ -3,8 +3,16 @@ package org.magicalpanda.projectmanagementbackend.repository;
 import org.magicalpanda.projectmanagementbackend.model.User;
 import org.magicalpanda.projectmanagementbackend.model.VerificationCode;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.VerificationPurpose;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface VerificationCodeRepository extends JpaRepository<VerificationCode, Long> {
@@ -21,4 +29,13 @@ public interface VerificationCodeRepository extends JpaRepository<VerificationCo
             VerificationPurpose purpose
     );
 
+    // Retention: one batch of expired codes (used or not), oldest first (idx_verification_codes_expires_at)
+    @Query("select vc.id from VerificationCode vc where vc.expiresAt < :cutoff order by vc.expiresAt")
+    List<Long> findExpiredIds(@Param("cutoff") Instant cutoff, Pageable batch);
+
+    @Transactional
+    @Modifying
+    @Query("delete from VerificationCode vc where vc.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
 }
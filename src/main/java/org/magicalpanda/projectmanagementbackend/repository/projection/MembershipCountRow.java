@@ -0,0 +1,6 @@
+package org.magicalpanda.projectmanagementbackend.repository.projection;
+
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+
+public record MembershipCountRow(Long projectId, MembershipStatus status, Long count) {
+}
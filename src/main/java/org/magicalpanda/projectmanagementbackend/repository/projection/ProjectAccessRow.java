@@ -0,0 +1,10 @@
+package org.magicalpanda.projectmanagementbackend.repository.projection;
+
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
+
+/**
+ * A user's role and membership status in one project.
+ */
+public record ProjectAccessRow(Long projectId, ProjectRole role, MembershipStatus status) {
+}
@@ -0,0 +1,36 @@
+package org.magicalpanda.projectmanagementbackend.repository.projection;
+
+import org.magicalpanda.projectmanagementbackend.dto.response.ProjectSummaryResponse;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+
+import java.time.Instant;
+
+/**
+ * ProjectSummaryResponse columns plus the membership sort key (createdAt, id) the next
+ * cursor is built from.
+ */
+public record ProjectSummaryRow(
+        Long projectId,
+        String name,
+        ProjectRole role,
+        ProjectStatus status,
+        Instant projectCreatedAt,
+        Long activeMembers,
+        Long openTasks,
+        Instant membershipCreatedAt,
+        Long membershipId
+) {
+
+    public ProjectSummaryResponse toResponse() {
+        return ProjectSummaryResponse.builder()
+                .id(projectId)
+                .name(name)
+                .role(role)
+                .status(status)
+                .createdAt(projectCreatedAt)
+                .activeMembers(activeMembers)
+                .openTasks(openTasks)
+                .build();
+    }
+}
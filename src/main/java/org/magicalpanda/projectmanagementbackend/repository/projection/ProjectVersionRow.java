@@ -0,0 +1,15 @@
+package org.magicalpanda.projectmanagementbackend.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * Change markers of a project representation: how many memberships it covers and the latest
+ * updated_at of the projects, memberships and stats rows it is built from.
+ */
+public record ProjectVersionRow(
+        Long memberships,
+        Instant projectUpdatedAt,
+        Instant membershipUpdatedAt,
+        Instant statsUpdatedAt
+) {
+}
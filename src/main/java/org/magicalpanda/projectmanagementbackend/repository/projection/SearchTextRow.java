@@ -0,0 +1,5 @@
+package org.magicalpanda.projectmanagementbackend.repository.projection;
+
+// Searchable text of a project or task, read by the search index rebuild
+public record SearchTextRow(Long id, Long projectId, String title, String description) {
+}
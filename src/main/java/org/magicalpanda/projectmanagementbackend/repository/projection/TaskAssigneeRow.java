@@ -0,0 +1,4 @@
+package org.magicalpanda.projectmanagementbackend.repository.projection;
+
+public record TaskAssigneeRow(Long taskId, Long userId, String username) {
+}
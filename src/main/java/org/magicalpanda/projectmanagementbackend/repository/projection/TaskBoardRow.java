@@ -0,0 +1,34 @@
+package org.magicalpanda.projectmanagementbackend.repository.projection;
+
+import org.magicalpanda.projectmanagementbackend.dto.response.TaskAssigneeResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.TaskResponse;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * TaskResponse columns; the assignees are loaded for the whole page afterwards.
+ */
+public record TaskBoardRow(
+        Long id,
+        String title,
+        TaskStatus status,
+        TaskPriority priority,
+        Instant dueDate,
+        Instant createdAt
+) {
+
+    public TaskResponse toResponse(List<TaskAssigneeResponse> assignees) {
+        return TaskResponse.builder()
+                .id(id)
+                .title(title)
+                .status(status)
+                .priority(priority)
+                .dueDate(dueDate)
+                .createdAt(createdAt)
+                .assignees(assignees)
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+package org.magicalpanda.projectmanagementbackend.repository.projection;
+
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+
+public record TaskCountRow(Long projectId, TaskStatus status, TaskPriority priority, Long count) {
+}
@@ -0,0 +1,24 @@
+package org.magicalpanda.projectmanagementbackend.repository.projection;
+
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+
+import java.time.Instant;
+
+/**
+ * One task and one of its assignees (both null if unassigned), read by the task export.
+ */
+public record TaskExportRow(
+        Long id,
+        String title,
+        String description,
+        TaskStatus status,
+        TaskPriority priority,
+        Instant dueDate,
+        Instant createdAt,
+        Instant updatedAt,
+        String createdBy,
+        Long assigneeId,
+        String assigneeUsername
+) {
+}
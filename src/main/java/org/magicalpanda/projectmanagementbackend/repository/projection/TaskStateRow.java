@@ -0,0 +1,9 @@
+package org.magicalpanda.projectmanagementbackend.repository.projection;
+
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+
+import java.time.Instant;
+
+public record TaskStateRow(Long id, TaskStatus status, TaskPriority priority, Instant dueDate) {
+}
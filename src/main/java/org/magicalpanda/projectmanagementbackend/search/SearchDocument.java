@@ -0,0 +1,36 @@
+package org.magicalpanda.projectmanagementbackend.search;
+
+import org.magicalpanda.projectmanagementbackend.model.Project;
+import org.magicalpanda.projectmanagementbackend.model.Task;
+
+/**
+ * The searchable text of a project or task. A project's projectId is its own id, so both
+ * types are filtered by the same visible project ids.
+ */
+public record SearchDocument(
+        SearchDocumentType type,
+        Long id,
+        Long projectId,
+        String title,
+        String description
+) {
+
+    public static SearchDocument of(Project project) {
+        return new SearchDocument(
+                SearchDocumentType.PROJECT, project.getId(), project.getId(), project.getName(), project.getDescription());
+    }
+
+    public static SearchDocument of(Task task) {
+        return new SearchDocument(
+                SearchDocumentType.TASK, task.getId(), task.getProject().getId(), task.getTitle(), task.getDescription());
+    }
+
+    // Unique per document, used to replace or delete it
+    public String key() {
+        return key(type, id);
+    }
+
+    public static String key(SearchDocumentType type, Long id) {
+        return type.name() + ":" + id;
+    }
+}
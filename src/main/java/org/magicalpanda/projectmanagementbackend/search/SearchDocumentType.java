@@ -0,0 +1,6 @@
+package org.magicalpanda.projectmanagementbackend.search;
+
+public enum SearchDocumentType {
+    PROJECT,
+    TASK
+}
@@ -0,0 +1,301 @@
+package org.magicalpanda.projectmanagementbackend.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.magicalpanda.projectmanagementbackend.dto.response.SearchHitResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Node-local Lucene index of project and task text, stored under app.search.index-path and
+ * read through memory-mapped segments.
+ *
+ * Writes are buffered by the IndexWriter and become searchable at the next refresh (near
+ * real-time, no fsync); commits to disk run on their own, slower schedule. Changes not yet
+ * committed when the node crashes are lost, which a rebuild repairs.
+ */
+@Slf4j
+@Component
+public class SearchIndex implements DisposableBean {
+
+    private static final String KEY = "key";
+    private static final String TYPE = "type";
+    private static final String ID = "id";
+    private static final String PROJECT_ID = "projectId";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+
+    private static final float TITLE_BOOST = 2f;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+
+    // Replaced together when a failed rebuild is rolled back, under the write lock
+    private final ReadWriteLock writerLock = new ReentrantReadWriteLock();
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    // Held for a whole rebuild; scheduled refreshes and commits skip while it is held, so the
+    // emptied index is neither shown nor written to disk before it is complete
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public SearchIndex(@Value("${app.search.index-path:./data/search-index}") Path path) throws IOException {
+        Files.createDirectories(path);
+
+        this.directory = new MMapDirectory(path);
+        open();
+    }
+
+    public void upsert(SearchDocument document) {
+        Document doc = new Document();
+        doc.add(new StringField(KEY, document.key(), Field.Store.NO));
+        doc.add(new StringField(TYPE, document.type().name(), Field.Store.YES));
+        doc.add(new StoredField(ID, document.id()));
+        doc.add(new LongPoint(PROJECT_ID, document.projectId()));
+        doc.add(new StoredField(PROJECT_ID, document.projectId()));
+        doc.add(new TextField(TITLE, nullToEmpty(document.title()), Field.Store.YES));
+        doc.add(new TextField(DESCRIPTION, nullToEmpty(document.description()), Field.Store.NO));
+
+        withWriter(writer -> writer.updateDocument(new Term(KEY, document.key()), doc));
+    }
+
+    public void delete(SearchDocumentType type, Long id) {
+        withWriter(writer -> writer.deleteDocuments(new Term(KEY, SearchDocument.key(type, id))));
+    }
+
+    /**
+     * Whether the index holds no documents, e.g. on a node started without an index.
+     */
+    public boolean isEmpty() {
+        return withWriter(writer -> writer.getDocStats().numDocs == 0);
+    }
+
+    /**
+     * Replaces the whole index with the documents the loader upserts, then commits. Searches
+     * see the previous contents until the rebuild is complete; changes indexed concurrently
+     * are kept, since every document is written by key. If the loader fails, the index is
+     * rolled back to its contents before the rebuild.
+     */
+    public void rebuild(Runnable loader) {
+        rebuildLock.lock();
+        try {
+            // 1. Commit pending changes, so a rollback only undoes the rebuild
+            withWriter(IndexWriter::commit);
+
+            // 2. Empty, reload and commit
+            try {
+                withWriter(IndexWriter::deleteAll);
+                loader.run();
+                withWriter(IndexWriter::commit);
+            } catch (RuntimeException ex) {
+                rollback();
+                throw ex;
+            }
+
+            refresh();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Documents of the given projects matching every term of the text (the last one as a
+     * prefix, for type-ahead), best first.
+     *
+     * @param projectIds projects the caller may see, null for no restriction
+     */
+    public List<SearchHitResponse> search(String text, Collection<Long> projectIds, int limit) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search text has no searchable terms");
+        }
+        if (projectIds != null && projectIds.isEmpty()) {
+            return List.of();
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            boolean last = i == terms.size() - 1;
+            query.add(anyField(terms.get(i), last), BooleanClause.Occur.MUST);
+        }
+        if (projectIds != null) {
+            query.add(LongPoint.newSetQuery(PROJECT_ID, projectIds), BooleanClause.Occur.FILTER);
+        }
+
+        writerLock.readLock().lock();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query.build(), limit);
+                List<SearchHitResponse> hits = new ArrayList<>(top.scoreDocs.length);
+
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    Document doc = searcher.storedFields().document(scoreDoc.doc);
+                    hits.add(SearchHitResponse.builder()
+                            .type(SearchDocumentType.valueOf(doc.get(TYPE)))
+                            .id(doc.getField(ID).numericValue().longValue())
+                            .projectId(doc.getField(PROJECT_ID).numericValue().longValue())
+                            .title(doc.get(TITLE))
+                            .score(scoreDoc.score)
+                            .build());
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            writerLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.search.refresh-interval:1}",
+            fixedDelayString = "${app.search.refresh-interval:1}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public void refresh() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            withWriter(writer -> searcherManager.maybeRefresh());
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh the search index", ex);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.search.commit-interval:60}",
+            fixedDelayString = "${app.search.commit-interval:60}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public void commit() {
+        if (!rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            withWriter(IndexWriter::commit);
+        } catch (RuntimeException ex) {
+            log.warn("Could not commit the search index", ex);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close(); // commits pending changes
+        directory.close();
+    }
+
+    private void open() throws IOException {
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    // Discards everything since the last commit (closing the writer) and reopens the index
+    private void rollback() {
+        writerLock.writeLock().lock();
+        try {
+            searcherManager.close();
+            writer.rollback();
+            open();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            writerLock.writeLock().unlock();
+        }
+        log.warn("Search index rebuild failed, rolled back to the last commit");
+    }
+
+    private <T> T withWriter(WriterCall<T> call) {
+        writerLock.readLock().lock();
+        try {
+            return call.apply(writer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            writerLock.readLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface WriterCall<T> {
+        T apply(IndexWriter writer) throws IOException;
+    }
+
+    private static Query anyField(String term, boolean prefix) {
+        return new BooleanQuery.Builder()
+                .add(new BoostQuery(termQuery(TITLE, term, prefix), TITLE_BOOST), BooleanClause.Occur.SHOULD)
+                .add(termQuery(DESCRIPTION, term, prefix), BooleanClause.Occur.SHOULD)
+                .build();
+    }
+
+    private static Query termQuery(String field, String term, boolean prefix) {
+        return prefix ? new PrefixQuery(new Term(field, term)) : new TermQuery(new Term(field, term));
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return terms;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,44 @@
+package org.magicalpanda.projectmanagementbackend.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.event.SearchDocumentChangedEvent;
+import org.magicalpanda.projectmanagementbackend.model.Project;
+import org.magicalpanda.projectmanagementbackend.model.Task;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Turns JPA lifecycle events of searchable entities into SearchDocumentChangedEvents, so every
+ * write through the entity manager reaches the index without each service publishing it.
+ * JPQL bulk updates bypass it; they only touch status, priority and due dates, none of which
+ * are indexed. Instantiated by Hibernate through Spring's bean container.
+ */
+@RequiredArgsConstructor
+public class SearchIndexEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    void onSaved(Object entity) {
+        eventPublisher.publishEvent(SearchDocumentChangedEvent.saved(toDocument(entity)));
+    }
+
+    @PostRemove
+    void onRemoved(Object entity) {
+        SearchDocument document = toDocument(entity);
+        eventPublisher.publishEvent(SearchDocumentChangedEvent.removed(document.type(), document.id()));
+    }
+
+    private static SearchDocument toDocument(Object entity) {
+        if (entity instanceof Project project) {
+            return SearchDocument.of(project);
+        }
+        if (entity instanceof Task task) {
+            return SearchDocument.of(task);
+        }
+        throw new IllegalArgumentException("Not searchable: " + entity.getClass().getName());
+    }
+}
@@ -0,0 +1,90 @@
+package org.magicalpanda.projectmanagementbackend.security.auth;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * BCrypt encoder whose cost factor is calibrated at startup against a target
+ * verification latency on the current hardware.
+ *
+ * upgradeEncoding reports stored hashes with a lower cost than the calibrated one, so
+ * they are re-encoded transparently on the next login. Higher costs are left alone: nodes
+ * on different hardware calibrate differently, and downgrading would make them re-hash
+ * each other's hashes on every login.
+ */
+@Slf4j
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final int BCRYPT_MIN_COST = 4;
+    private static final int BCRYPT_MAX_COST = 31;
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    @Getter
+    private final int cost;
+
+    private AdaptiveBCryptPasswordEncoder(int cost) {
+        super(cost);
+        this.cost = cost;
+    }
+
+    /**
+     * Picks the highest cost whose verification stays within the target latency,
+     * never going below minCost or above maxCost.
+     */
+    public static AdaptiveBCryptPasswordEncoder calibrated(Duration targetLatency, int minCost, int maxCost) {
+        int floor = Math.max(minCost, BCRYPT_MIN_COST);
+        int ceiling = Math.min(maxCost, BCRYPT_MAX_COST);
+
+        // Best of a few runs at the floor cost, so JIT warm-up does not skew the estimate
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(floor);
+        String hash = probe.encode("calibration-password");
+        long best = Long.MAX_VALUE;
+
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.matches("calibration-password", hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        // Every extra cost step doubles the work
+        int cost = floor;
+        long estimate = best;
+        while (cost < ceiling && estimate * 2 <= targetLatency.toNanos()) {
+            estimate *= 2;
+            cost++;
+        }
+
+        log.info("BCrypt cost calibrated to {} (~{} ms per verification, target {} ms)",
+                cost, estimate / 1_000_000, targetLatency.toMillis());
+
+        return new AdaptiveBCryptPasswordEncoder(cost);
+    }
+
+    @Override
+    protected boolean upgradeEncodingNonNull(String encodedPassword) {
+        Integer storedCost = parseCost(encodedPassword);
+        return storedCost != null && storedCost < cost;
+    }
+
+    // BCrypt hashes look like $2a$10$<salt+hash>, the cost is the second field
+    private static Integer parseCost(String encodedPassword) {
+        if (encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return null;
+        }
+
+        int start = encodedPassword.indexOf('$', 1) + 1;
+        int end = encodedPassword.indexOf('$', start);
+        if (start <= 0 || end < 0) {
+            return null;
+        }
+
+        try {
+            return Integer.parseInt(encodedPassword.substring(start, end));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
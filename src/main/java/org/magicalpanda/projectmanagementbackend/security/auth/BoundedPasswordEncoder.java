@@ -0,0 +1,123 @@
+package org.magicalpanda.projectmanagementbackend.security.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.magicalpanda.projectmanagementbackend.exception.ServiceOverloadedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder that runs hashing and verification on a dedicated, bounded executor.
+ *
+ * Password hashing is the most expensive CPU work in the service. Running it on a pool
+ * sized to the core count, with a bounded queue, keeps a login burst from pinning every
+ * servlet thread: once the queue is full new requests are rejected immediately with
+ * ServiceOverloadedException (503 + Retry-After) instead of piling up.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(
+            PasswordEncoder delegate,
+            int threads,
+            int queueCapacity,
+            long retryAfterSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.encodeTimer = Timer.builder("password.hashing.latency")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hashing.latency")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .register(meterRegistry);
+
+        Gauge.builder("password.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException(
+                    "Too many concurrent login or registration requests, please retry later",
+                    retryAfterSeconds
+            );
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
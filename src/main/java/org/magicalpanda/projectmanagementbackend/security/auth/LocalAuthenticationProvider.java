@@ -1,7 +1,9 @@
 package org.magicalpanda.projectmanagementbackend.security.auth;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.Nullable;
+import org.magicalpanda.projectmanagementbackend.exception.ServiceOverloadedException;
 import org.magicalpanda.projectmanagementbackend.model.AuthIdentity;
 import org.magicalpanda.projectmanagementbackend.model.User;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.AuthProvider;
@@ -15,6 +17,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class LocalAuthenticationProvider implements AuthenticationProvider {
@@ -27,9 +30,9 @@ public class LocalAuthenticationProvider implements AuthenticationProvider {
         String username = authentication.getName();
         String rawPassword = authentication.getCredentials().toString();
 
-        // 1. Load LOCAL AuthIdentity
+        // 1. Load LOCAL AuthIdentity together with its User (single statement)
         AuthIdentity identity = authIdentityRepository
-                .findByProviderAndProviderUserId(AuthProvider.LOCAL, username)
+                .findWithUserByProviderAndProviderUserId(AuthProvider.LOCAL, username)
                 .orElseThrow(() ->
                         new BadCredentialsException("Invalid username")
                 );
@@ -39,11 +42,14 @@ public class LocalAuthenticationProvider implements AuthenticationProvider {
             throw new BadCredentialsException("Invalid password");
         }
 
-        // 3. Build Security principal
+        // 3. Re-hash with the current cost factor if the stored hash was made with a lower one
+        rehashIfNeeded(identity, rawPassword);
+
+        // 4. Build Security principal
         User user = identity.getUser();
         SecurityUser principal = new SecurityUser(user);
 
-        // 4. Return authenticated token
+        // 5. Return authenticated token
         return new UsernamePasswordAuthenticationToken(
                 principal,
                 null,
@@ -51,6 +57,20 @@ public class LocalAuthenticationProvider implements AuthenticationProvider {
         );
     }
 
+    private void rehashIfNeeded(AuthIdentity identity, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(identity.getPasswordHash())) {
+            return;
+        }
+
+        try {
+            identity.setPasswordHash(passwordEncoder.encode(rawPassword));
+            authIdentityRepository.save(identity);
+        } catch (ServiceOverloadedException ex) {
+            // Not worth failing a valid login over, the next login will try again
+            log.debug("Skipped password re-hash for identity {}: {}", identity.getId(), ex.getMessage());
+        }
+    }
+
     @Override
     public boolean supports(Class<?> authentication) {
         return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
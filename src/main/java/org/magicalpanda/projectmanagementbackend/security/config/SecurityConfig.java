@@ -1,11 +1,16 @@
 package org.magicalpanda.projectmanagementbackend.security.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.security.auth.AdaptiveBCryptPasswordEncoder;
+import org.magicalpanda.projectmanagementbackend.security.auth.BoundedPasswordEncoder;
 import org.magicalpanda.projectmanagementbackend.security.handler.RestAccessDeniedHandler;
 import org.magicalpanda.projectmanagementbackend.security.handler.RestAuthenticationEntryPoint;
 import org.magicalpanda.projectmanagementbackend.security.jwt.JwtAuthenticationFilter;
 import org.magicalpanda.projectmanagementbackend.security.oauth.GoogleOidcUserService;
 import org.magicalpanda.projectmanagementbackend.security.oauth.Oauth2LoginSuccessHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -15,11 +20,12 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -50,8 +56,11 @@ public class SecurityConfig {
                                 "/error"
                         ).permitAll()
 
+                        // Completion of streamed responses (e.g. task exports); the request itself was authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Logout requires a valid access token
-                        .requestMatchers("/api/auth/logout").authenticated()
+                        .requestMatchers("/api/auth/logout", "/api/auth/logout-all").authenticated()
 
                         // Everything else
                         .anyRequest().authenticated()
@@ -79,9 +88,25 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // BCrypt cost is calibrated against a target latency at startup; hashing runs on its own
+    // bounded pool (sized to the core count by default) so it cannot starve servlet threads
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${spring.security.password.bcrypt.target-latency:50ms}") Duration targetLatency,
+            @Value("${spring.security.password.bcrypt.min-cost:10}") int minCost,
+            @Value("${spring.security.password.bcrypt.max-cost:16}") int maxCost,
+            @Value("${spring.security.password.hashing.threads:0}") int threads,
+            @Value("${spring.security.password.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${spring.security.password.hashing.retry-after:1}") long retryAfterSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        return new BoundedPasswordEncoder(
+                AdaptiveBCryptPasswordEncoder.calibrated(targetLatency, minCost, maxCost),
+                threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                queueCapacity,
+                retryAfterSeconds,
+                meterRegistry
+        );
     }
 
     @Bean
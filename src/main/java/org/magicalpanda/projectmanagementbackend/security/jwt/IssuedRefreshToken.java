@@ -0,0 +1,12 @@
+package org.magicalpanda.projectmanagementbackend.security.jwt;
+
+import java.time.Instant;
+
+/**
+ * A signed refresh token together with the values its store needs to persist.
+ *
+ * familyId is shared by every token rotated from the same login, so reuse of a rotated
+ * token can revoke the whole chain.
+ */
+public record IssuedRefreshToken(String token, String jti, String familyId, Long userId, Instant expiresAt) {
+}
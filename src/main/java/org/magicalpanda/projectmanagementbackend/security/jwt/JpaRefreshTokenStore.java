@@ -0,0 +1,109 @@
+package org.magicalpanda.projectmanagementbackend.security.jwt;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.model.RefreshToken;
+import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.repository.RefreshTokenRepository;
+import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Refresh tokens stored in the refresh_tokens table (default mode).
+ */
+@Component
+@Transactional
+@ConditionalOnProperty(name = "spring.security.jwt.refresh-token-store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    public void save(IssuedRefreshToken token, SecurityUser owner) {
+        // Reference only, the user row is not loaded
+        User user = userRepository.getReferenceById(owner.getId());
+
+        refreshTokenRepository.save(toEntity(token, user));
+    }
+
+    /**
+     * Not rolled back on rejection, so a family revoked on reuse stays revoked.
+     */
+    @Override
+    @Transactional(noRollbackFor = JwtException.class)
+    public SecurityUser rotate(String presentedJti, IssuedRefreshToken replacement) {
+
+        // 1. Claim the presented token with a single conditional UPDATE:
+        // of two concurrent refreshes with the same token, only one sees an affected row
+        if (refreshTokenRepository.revokeIfActive(presentedJti, Instant.now()) == 0) {
+            throw rejectRotation(presentedJti);
+        }
+
+        // 2. Store the replacement in the same family
+        User user = userRepository.findById(replacement.userId())
+                .orElseThrow(() -> new JwtException("Refresh token not found"));
+
+        refreshTokenRepository.save(toEntity(replacement, user));
+
+        return new SecurityUser(user);
+    }
+
+    @Override
+    public boolean revoke(String jti, Long userId) {
+        return refreshTokenRepository.revokeByJti(jti) > 0 || refreshTokenRepository.existsByJti(jti);
+    }
+
+    @Override
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    @Override
+    public List<RefreshSession> activeSessions(Long userId) {
+        return refreshTokenRepository
+                .findByUserIdAndIsRevokedFalseAndExpiresAtAfter(userId, Instant.now())
+                .stream()
+                .map(token -> new RefreshSession(token.getJti(), token.getExpiresAt()))
+                .toList();
+    }
+
+    /**
+     * Works out why a rotation claim failed. Only runs on the failure path.
+     */
+    private JwtException rejectRotation(String jti) {
+        RefreshToken storedToken = refreshTokenRepository.findByJti(jti).orElse(null);
+
+        if (storedToken == null) {
+            return new JwtException("Refresh token not found");
+        }
+
+        if (storedToken.isRevoked()) {
+            // A rotated (or logged out) token presented again means it was copied:
+            // end the whole chain so neither party can keep refreshing
+            if (storedToken.getFamilyId() != null) {
+                refreshTokenRepository.revokeFamily(storedToken.getFamilyId());
+            }
+            return new JwtException("Refresh token reuse detected");
+        }
+
+        return new JwtException("Refresh token expired");
+    }
+
+    private static RefreshToken toEntity(IssuedRefreshToken token, User user) {
+        return RefreshToken.builder()
+                .jti(token.jti())
+                .familyId(token.familyId())
+                .user(user)
+                .expiresAt(token.expiresAt())
+                .isRevoked(false)
+                .build();
+    }
+}
@@ -9,8 +9,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.Role;
+import org.magicalpanda.projectmanagementbackend.security.jwt.VerifiedTokenCache.VerifiedAccessToken;
 import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
 import org.magicalpanda.projectmanagementbackend.service.TokenBlacklistService;
+import org.magicalpanda.projectmanagementbackend.service.TokenRevocationService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,6 +27,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final TokenRevocationService tokenRevocationService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(
@@ -43,19 +47,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
-            // 1. Validate access token and retrieve claims
-            Claims claims = jwtService.validateAccessToken(token);
+            // 1. Validate access token and rebuild SecurityUser (cached per token until it expires)
+            VerifiedAccessToken verified = verifiedTokenCache.get(token, this::verify);
 
-            // 2. Blacklist check
-            String jti = claims.get("jti", String.class);
-            if (tokenBlacklistService.isBlacklisted(jti)) {
+            // 2. Blacklist and per-user revocation checks (always, cache hits included)
+            if (tokenBlacklistService.isBlacklisted(verified.jti())
+                    || tokenRevocationService.isRevoked(verified.principal().getId(), verified.issuedAt())) {
                 SecurityContextHolder.clearContext();
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 return;
             }
 
-            // 3. Rebuild SecurityUser
-            SecurityUser principal = buildPrincipal(claims);
+            // 3. Cached SecurityUser
+            SecurityUser principal = verified.principal();
 
             // 4. Create Authentication
             Authentication authentication =
@@ -79,7 +83,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     }
 
-    private SecurityUser buildPrincipal(Claims claims) {
+    private VerifiedAccessToken verify(String token) {
+        Claims claims = jwtService.validateAccessToken(token);
+
+        return new VerifiedAccessToken(
+                claims.get("jti", String.class),
+                buildPrincipal(claims),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant()
+        );
+    }
+
+    // package-private for the token benchmarks (src/jmh)
+    SecurityUser buildPrincipal(Claims claims) {
 
         Long userId = Long.valueOf(claims.getSubject());
         String username = claims.get("username", String.class);
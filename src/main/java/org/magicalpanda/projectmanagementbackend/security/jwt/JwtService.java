@@ -2,19 +2,16 @@ package org.magicalpanda.projectmanagementbackend.security.jwt;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.Nullable;
-import org.magicalpanda.projectmanagementbackend.model.RefreshToken;
-import org.magicalpanda.projectmanagementbackend.model.User;
-import org.magicalpanda.projectmanagementbackend.repository.RefreshTokenRepository;
 import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
 import java.time.Instant;
 import java.util.Date;
 import java.util.UUID;
@@ -23,24 +20,29 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
-    private final Key signingKey;
+    private final SecretKey signingKey;
+    // JwtParser is immutable and thread-safe, build it once instead of on every validation
+    private final JwtParser jwtParser;
     private final long accessTokenExpirationSeconds;
     private final long refreshTokenExpirationSeconds;
 
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
 
     public JwtService(
             @Value("${spring.security.jwt.secret}") String secret,
             @Value("${spring.security.jwt.access-token-expiration}") long accessTokenExpirationSeconds,
             @Value("${spring.security.jwt.refresh-token-expiration}") long refreshTokenExpirationSeconds,
-            RefreshTokenRepository refreshTokenRepository
+            RefreshTokenStore refreshTokenStore
     ) {
         this.signingKey = Keys.hmacShaKeyFor(
                 Decoders.BASE64.decode(secret)
         );
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
         this.accessTokenExpirationSeconds = accessTokenExpirationSeconds;
         this.refreshTokenExpirationSeconds = refreshTokenExpirationSeconds;
-        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenStore = refreshTokenStore;
     }
 
     // generate access token
@@ -63,32 +65,37 @@ public class JwtService {
                 .compact();
     }
 
-    // generate refresh token
-    public String generateRefreshToken(User user) {
+    // generate refresh token and persist it through the configured store
+    public String generateRefreshToken(SecurityUser user) {
+
+        // A new login starts a new token family
+        IssuedRefreshToken refreshToken = issueRefreshToken(user.getId(), null);
+
+        refreshTokenStore.save(refreshToken, user);
+
+        return refreshToken.token();
+    }
+
+    // sign a new refresh token without persisting it (the caller stores it, e.g. during rotation);
+    // a null familyId starts a new family identified by the token's own JTI
+    public IssuedRefreshToken issueRefreshToken(Long userId, @Nullable String familyId) {
 
         Instant now = Instant.now();
         Instant expiresAt = now.plusSeconds(refreshTokenExpirationSeconds);
         String jti = UUID.randomUUID().toString();
+        String family = familyId != null ? familyId : jti;
 
-        // 1. Persist refresh token
-        RefreshToken refreshToken = RefreshToken.builder()
-                .jti(jti)
-                .user(user)
-                .expiresAt(expiresAt)
-                .isRevoked(false)
-                .build();
-
-        refreshTokenRepository.save(refreshToken);
-
-        // 2. Issue refresh token JWT
-        return Jwts.builder()
-                .subject(user.getId().toString())
+        String token = Jwts.builder()
+                .subject(userId.toString())
                 .claim("jti", jti)
+                .claim("family", family)
                 .claim("token_type", TokenType.REFRESH_TOKEN.name())
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiresAt))
                 .signWith(signingKey)
                 .compact();
+
+        return new IssuedRefreshToken(token, jti, family, userId, expiresAt);
     }
 
     // validate access token
@@ -116,9 +123,7 @@ public class JwtService {
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey) signingKey)
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -0,0 +1,207 @@
+package org.magicalpanda.projectmanagementbackend.security.jwt;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Refresh tokens stored in Redis, so refresh and logout never write to the database.
+ *
+ * Each token is a hash "refresh:{userId}:{jti}" holding its revoked flag, expiry and family,
+ * and expiring with the token. "refresh-sessions:{userId}" lists the user's JTIs.
+ * The {userId} hash tag keeps a user's keys in one cluster slot, so the scripts below run
+ * atomically. The owner's role and email are not copied into the hash: rotation reads the
+ * user row by primary key, like the JPA store, so a demotion or email change applies at the
+ * next refresh. refresh_tokens is still written, asynchronously, as an audit trail.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.security.jwt.refresh-token-store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    // KEYS: token, sessions | ARGV: jti, expiresAt (ms), family
+    private static final RedisScript<Long> SAVE = RedisScript.of("""
+            redis.call('HSET', KEYS[1], 'revoked', '0', 'expiresAt', ARGV[2], 'family', ARGV[3])
+            redis.call('PEXPIREAT', KEYS[1], ARGV[2])
+            redis.call('SADD', KEYS[2], ARGV[1])
+            redis.call('PEXPIREAT', KEYS[2], ARGV[2])
+            return 1
+            """, Long.class);
+
+    // KEYS: presented token, replacement token, sessions
+    // ARGV: presented jti, new jti, new expiresAt (ms), now (ms), token key prefix
+    // A revoked presented token is reuse: every token of its family is revoked as well.
+    // The family's token keys are built from ARGV[5] instead of being declared in KEYS; on
+    // Redis Cluster this only works because the {userId} hash tag puts them in KEYS' slot
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE = RedisScript.of("""
+            local t = redis.call('HMGET', KEYS[1], 'revoked', 'expiresAt', 'family')
+            if not t[1] then return {'NOT_FOUND'} end
+            if t[1] == '1' then
+                if not t[3] then return {'REUSED'} end
+                for _, jti in ipairs(redis.call('SMEMBERS', KEYS[3])) do
+                    local key = ARGV[5] .. jti
+                    if redis.call('HGET', key, 'family') == t[3] then
+                        redis.call('HSET', key, 'revoked', '1')
+                        redis.call('SREM', KEYS[3], jti)
+                    end
+                end
+                return {'REUSED', t[3]}
+            end
+            if tonumber(t[2]) <= tonumber(ARGV[4]) then return {'EXPIRED'} end
+            redis.call('HSET', KEYS[1], 'revoked', '1')
+            redis.call('HSET', KEYS[2], 'revoked', '0', 'expiresAt', ARGV[3], 'family', t[3] or ARGV[1])
+            redis.call('PEXPIREAT', KEYS[2], ARGV[3])
+            redis.call('SREM', KEYS[3], ARGV[1])
+            redis.call('SADD', KEYS[3], ARGV[2])
+            redis.call('PEXPIREAT', KEYS[3], ARGV[3])
+            return {'OK'}
+            """, List.class);
+
+    // KEYS: token, sessions | ARGV: jti
+    private static final RedisScript<Long> REVOKE = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end
+            redis.call('HSET', KEYS[1], 'revoked', '1')
+            redis.call('SREM', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    // KEYS: sessions | ARGV: token key prefix
+    // The token keys are built from ARGV[1] instead of being declared in KEYS; on Redis
+    // Cluster this only works because the {userId} hash tag puts them in KEYS' slot
+    private static final RedisScript<Long> REVOKE_ALL = RedisScript.of("""
+            local jtis = redis.call('SMEMBERS', KEYS[1])
+            for _, jti in ipairs(jtis) do
+                local key = ARGV[1] .. jti
+                if redis.call('EXISTS', key) == 1 then redis.call('HSET', key, 'revoked', '1') end
+            end
+            redis.call('DEL', KEYS[1])
+            return #jtis
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RefreshTokenAuditWriter auditWriter;
+    private final UserRepository userRepository;
+
+    @Override
+    public void save(IssuedRefreshToken token, SecurityUser owner) {
+        redisTemplate.execute(
+                SAVE,
+                List.of(tokenKey(token.userId(), token.jti()), sessionsKey(token.userId())),
+                token.jti(),
+                Long.toString(token.expiresAt().toEpochMilli()),
+                token.familyId()
+        );
+
+        auditWriter.recordIssued(token);
+    }
+
+    @Override
+    public SecurityUser rotate(String presentedJti, IssuedRefreshToken replacement) {
+        Long userId = replacement.userId();
+
+        List<?> result = redisTemplate.execute(
+                ROTATE,
+                List.of(tokenKey(userId, presentedJti), tokenKey(userId, replacement.jti()), sessionsKey(userId)),
+                presentedJti,
+                replacement.jti(),
+                Long.toString(replacement.expiresAt().toEpochMilli()),
+                Long.toString(Instant.now().toEpochMilli()),
+                tokenKeyPrefix(userId)
+        );
+
+        switch ((String) result.get(0)) {
+            case "NOT_FOUND" -> throw new JwtException("Refresh token not found");
+            case "REUSED" -> {
+                if (result.size() > 1) {
+                    auditWriter.recordFamilyRevoked((String) result.get(1));
+                }
+                throw new JwtException("Refresh token reuse detected");
+            }
+            case "EXPIRED" -> throw new JwtException("Refresh token expired");
+            default -> { }
+        }
+
+        auditWriter.recordRotated(presentedJti, replacement);
+
+        // Current role, email and verified flag, not the ones the token was first issued with
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new JwtException("Refresh token not found"));
+
+        return new SecurityUser(user);
+    }
+
+    @Override
+    public boolean revoke(String jti, Long userId) {
+        Long revoked = redisTemplate.execute(REVOKE, List.of(tokenKey(userId, jti), sessionsKey(userId)), jti);
+
+        if (revoked == null || revoked == 0) {
+            return false;
+        }
+
+        auditWriter.recordRevoked(jti);
+        return true;
+    }
+
+    @Override
+    public void revokeAll(Long userId) {
+        redisTemplate.execute(REVOKE_ALL, List.of(sessionsKey(userId)), tokenKeyPrefix(userId));
+
+        auditWriter.recordAllRevoked(userId);
+    }
+
+    @Override
+    public List<RefreshSession> activeSessions(Long userId) {
+        String sessionsKey = sessionsKey(userId);
+        Set<String> jtis = redisTemplate.opsForSet().members(sessionsKey);
+
+        if (jtis == null || jtis.isEmpty()) {
+            return List.of();
+        }
+
+        Instant now = Instant.now();
+        List<RefreshSession> sessions = new ArrayList<>(jtis.size());
+
+        for (String jti : jtis) {
+            List<Object> fields = redisTemplate.opsForHash()
+                    .multiGet(tokenKey(userId, jti), List.of("revoked", "expiresAt"));
+
+            // Entries whose token hash has expired are dropped lazily
+            if (fields.get(0) == null) {
+                redisTemplate.opsForSet().remove(sessionsKey, jti);
+                continue;
+            }
+
+            Instant expiresAt = Instant.ofEpochMilli(Long.parseLong((String) fields.get(1)));
+
+            if (!"1".equals(fields.get(0)) && expiresAt.isAfter(now)) {
+                sessions.add(new RefreshSession(jti, expiresAt));
+            }
+        }
+
+        return sessions;
+    }
+
+    private static String tokenKeyPrefix(Long userId) {
+        return "refresh:{" + userId + "}:";
+    }
+
+    private static String tokenKey(Long userId, String jti) {
+        return tokenKeyPrefix(userId) + jti;
+    }
+
+    private static String sessionsKey(Long userId) {
+        return "refresh-sessions:{" + userId + "}";
+    }
+}
@@ -0,0 +1,60 @@
+package org.magicalpanda.projectmanagementbackend.security.jwt;
+
+import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.config.AsyncConfig;
+import org.magicalpanda.projectmanagementbackend.model.RefreshToken;
+import org.magicalpanda.projectmanagementbackend.repository.RefreshTokenRepository;
+import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Mirrors the Redis refresh token store into refresh_tokens, off the request path.
+ *
+ * Runs on a single-threaded executor so writes are applied in the order they were issued
+ * (a rotation never lands before the insert of the token it revokes). The table is an
+ * audit trail only; it is never read to authorize a refresh.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.security.jwt.refresh-token-store", havingValue = "redis")
+@Async(AsyncConfig.REFRESH_TOKEN_AUDIT_EXECUTOR)
+@Transactional
+@RequiredArgsConstructor
+public class RefreshTokenAuditWriter {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    public void recordIssued(IssuedRefreshToken token) {
+        refreshTokenRepository.save(toEntity(token));
+    }
+
+    public void recordRotated(String presentedJti, IssuedRefreshToken replacement) {
+        refreshTokenRepository.revokeByJti(presentedJti);
+        refreshTokenRepository.save(toEntity(replacement));
+    }
+
+    public void recordFamilyRevoked(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId);
+    }
+
+    public void recordRevoked(String jti) {
+        refreshTokenRepository.revokeByJti(jti);
+    }
+
+    public void recordAllRevoked(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    private RefreshToken toEntity(IssuedRefreshToken token) {
+        return RefreshToken.builder()
+                .jti(token.jti())
+                .familyId(token.familyId())
+                .user(userRepository.getReferenceById(token.userId()))
+                .expiresAt(token.expiresAt())
+                .isRevoked(false)
+                .build();
+    }
+}
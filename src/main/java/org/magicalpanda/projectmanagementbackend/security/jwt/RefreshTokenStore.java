@@ -0,0 +1,52 @@
+package org.magicalpanda.projectmanagementbackend.security.jwt;
+
+import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Server-side state of refresh tokens (validity, revocation, rotation).
+ *
+ * Selected with spring.security.jwt.refresh-token-store:
+ * "jpa" (default) keeps tokens in the refresh_tokens table,
+ * "redis" keeps them in Redis and writes refresh_tokens asynchronously as an audit trail.
+ */
+public interface RefreshTokenStore {
+
+    /**
+     * Stores a newly issued refresh token for the given user.
+     */
+    void save(IssuedRefreshToken token, SecurityUser owner);
+
+    /**
+     * Atomically revokes the presented token and stores its replacement.
+     *
+     * Presenting an already revoked token (reuse of a rotated token) revokes every token of
+     * its family.
+     *
+     * @return the owner of the presented token, with their current role and email
+     * @throws io.jsonwebtoken.JwtException if the presented token is unknown, expired or revoked
+     */
+    SecurityUser rotate(String presentedJti, IssuedRefreshToken replacement);
+
+    /**
+     * Revokes a single token (idempotent).
+     *
+     * @return false if the token is unknown
+     */
+    boolean revoke(String jti, Long userId);
+
+    /**
+     * Revokes every token of the user.
+     */
+    void revokeAll(Long userId);
+
+    /**
+     * Lists the user's active (not revoked, not expired) refresh tokens.
+     */
+    List<RefreshSession> activeSessions(Long userId);
+
+    record RefreshSession(String id, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,89 @@
+package org.magicalpanda.projectmanagementbackend.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Node-local cache of access tokens whose signature and claims were already verified.
+ *
+ * Entries are keyed by the SHA-256 digest of the raw token (the bearer token itself is
+ * never kept in memory) and expire no later than the token's own "exp" claim.
+ *
+ * The cache only replaces signature verification and claims parsing. The blacklist is
+ * still consulted on every request by the filter, so a cached entry can never outlive
+ * a blacklist entry.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedAccessToken> cache;
+
+    public VerifiedTokenCache(
+            @Value("${spring.security.jwt.verified-cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    /**
+     * Returns the verified token for the given raw access token, verifying it with the
+     * given function on a miss. Verification failures are propagated and never cached.
+     */
+    public VerifiedAccessToken get(String token, Function<String, VerifiedAccessToken> verifier) {
+        return cache.get(digest(token), key -> verifier.apply(token));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public record VerifiedAccessToken(String jti, SecurityUser principal, Instant issuedAt, Instant expiresAt) {
+    }
+
+    /**
+     * Expires each entry at the token's own expiration, never later.
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedAccessToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedAccessToken value, long currentTime) {
+            long nanos = (value.expiresAt().toEpochMilli() - System.currentTimeMillis()) * 1_000_000L;
+            return Math.max(nanos, 0L);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedAccessToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedAccessToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
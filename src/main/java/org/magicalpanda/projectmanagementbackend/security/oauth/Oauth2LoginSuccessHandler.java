@@ -5,10 +5,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.magicalpanda.projectmanagementbackend.dto.response.LoginResponse;
-import org.magicalpanda.projectmanagementbackend.model.AuthIdentity;
-import org.magicalpanda.projectmanagementbackend.model.User;
-import org.magicalpanda.projectmanagementbackend.model.enumeration.AuthProvider;
-import org.magicalpanda.projectmanagementbackend.repository.AuthIdentityRepository;
 import org.magicalpanda.projectmanagementbackend.security.jwt.JwtService;
 import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
 import org.springframework.security.core.Authentication;
@@ -24,23 +20,17 @@ import java.io.IOException;
 public class Oauth2LoginSuccessHandler implements AuthenticationSuccessHandler {
 
     private final JwtService jwtService;
-    private final AuthIdentityRepository authIdentityRepository;
     private final ObjectMapper objectMapper;
 
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException, ServletException {
 
         CustomOidcUser oauthUser = (CustomOidcUser) authentication.getPrincipal();
-        String providerUserId = oauthUser.getAttribute("sub");
-
-        AuthIdentity identity = authIdentityRepository
-                .findByProviderAndProviderUserId(AuthProvider.GOOGLE, providerUserId)
-                .orElseThrow();
 
         SecurityUser principal = oauthUser.getSecurityUser();
 
         String accessToken = jwtService.generateAccessToken(principal);
-        String refreshToken = jwtService.generateRefreshToken(identity.getUser());
+        String refreshToken = jwtService.generateRefreshToken(principal);
 
         response.setContentType("application/json;charset=UTF-8");
         response.getWriter().write(
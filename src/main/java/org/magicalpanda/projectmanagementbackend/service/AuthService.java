@@ -9,7 +9,6 @@ import org.magicalpanda.projectmanagementbackend.exception.ResourceAlreadyExists
 import org.magicalpanda.projectmanagementbackend.exception.ResourceNotFoundException;
 import org.magicalpanda.projectmanagementbackend.exception.VerificationCodeException;
 import org.magicalpanda.projectmanagementbackend.model.AuthIdentity;
-import org.magicalpanda.projectmanagementbackend.model.RefreshToken;
 import org.magicalpanda.projectmanagementbackend.model.User;
 import org.magicalpanda.projectmanagementbackend.model.VerificationCode;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.AuthProvider;
@@ -17,21 +16,25 @@ import org.magicalpanda.projectmanagementbackend.model.enumeration.Role;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.VerificationPurpose;
 import org.magicalpanda.projectmanagementbackend.proxy.EmailProxy;
 import org.magicalpanda.projectmanagementbackend.repository.AuthIdentityRepository;
-import org.magicalpanda.projectmanagementbackend.repository.RefreshTokenRepository;
 import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
 import org.magicalpanda.projectmanagementbackend.repository.VerificationCodeRepository;
+import org.magicalpanda.projectmanagementbackend.security.jwt.IssuedRefreshToken;
 import org.magicalpanda.projectmanagementbackend.security.jwt.JwtService;
+import org.magicalpanda.projectmanagementbackend.security.jwt.RefreshTokenStore;
 import org.magicalpanda.projectmanagementbackend.security.user.SecurityUser;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 import java.util.Random;
 
 @Service
@@ -42,13 +45,18 @@ public class AuthService {
     private final UserRepository userRepository;
     private final AuthIdentityRepository authIdentityRepository;
     private final VerificationCodeRepository verificationCodeRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final TokenBlacklistService tokenBlacklistService;
+    private final TokenRevocationService tokenRevocationService;
     private final EmailProxy emailProxy;
+    private final TransactionTemplate transactionTemplate;
 
+    // Runs without a transaction of its own: the password is hashed (queued on the bounded
+    // hashing pool) before a connection is taken, and only the inserts share a transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User register(RegisterRequest request){
 
         // 1. Enforce User-level uniqueness
@@ -80,7 +88,11 @@ public class AuthService {
             );
         }
 
-        // 2. Create user
+        // 2. Hash the password, outside any transaction
+        String passwordHash = passwordEncoder.encode(request.getPassword());
+
+        // 3. Create user, LOCAL AuthIdentity and email verification code together
+        // (a concurrent registration of the same email or username fails on the unique keys)
         User user = User.builder()
                 .email(request.getEmail())
                 .username(request.getUsername())
@@ -90,22 +102,20 @@ public class AuthService {
                 .role(Role.USER)
                 .build();
 
-        userRepository.save(user);
-
-        // Create LOCAL AuthIdentity
         AuthIdentity localIdentity = AuthIdentity.builder()
                 .provider(AuthProvider.LOCAL)
                 .providerUserId(request.getUsername())
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
+                .passwordHash(passwordHash)
                 .user(user)
                 .build();
 
-        authIdentityRepository.save(localIdentity);
-
-        // 3. Generate email verification code
         VerificationCode verificationCode = createEmailVerificationCode(user);
 
-        verificationCodeRepository.save(verificationCode);
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(user);
+            authIdentityRepository.save(localIdentity);
+            verificationCodeRepository.save(verificationCode);
+        });
 
         // 4. Send verification code via email
         sendVerificationEmail(user, verificationCode.getCode());
@@ -145,6 +155,9 @@ public class AuthService {
         verificationCodeRepository.save(code);
     }
 
+    // Runs without a transaction of its own: password verification waits on the bounded
+    // hashing pool, and the identity lookup and refresh token insert each take their own
+    @Transactional(propagation = Propagation.SUPPORTS)
     public LoginResponse login(LoginRequest request) {
 
         // 1. Delegate authentication to Spring Security
@@ -160,9 +173,7 @@ public class AuthService {
 
         // 3. Issue tokens (access and refresh JWTs)
         String accessToken = jwtService.generateAccessToken(principal);
-
-        User user = userRepository.getReferenceById(principal.getId());
-        String refreshToken = jwtService.generateRefreshToken(user);
+        String refreshToken = jwtService.generateRefreshToken(principal);
 
         return LoginResponse.builder()
                 .accessToken(accessToken)
@@ -171,6 +182,8 @@ public class AuthService {
 
     }
 
+    // Runs without a transaction of its own: the store only reads the owner's user row
+    @Transactional(propagation = Propagation.SUPPORTS)
     public LoginResponse refresh(RefreshTokenRequest request) {
 
         String refreshToken = request.getRefreshToken();
@@ -181,36 +194,25 @@ public class AuthService {
         String jti = (String) claims.get("jti");
         Long userId = Long.valueOf(claims.getSubject());
 
-        // 2. Load refresh token from DB (by JTI)
-        RefreshToken storedToken = refreshTokenRepository.findByJti(jti)
-                .orElseThrow(() -> new JwtException("Refresh token not found"));
-
-        // 3. Enforce server-side validity
-        if (storedToken.getExpiresAt().isBefore(Instant.now())) {
-            throw new JwtException("Refresh token expired");
-        }
-
-        if (storedToken.isRevoked()) {
-            throw new JwtException("Refresh token revoked");
-        }
-
-        // 4. Rotate refresh token
-        storedToken.setRevoked(true);
-        refreshTokenRepository.save(storedToken);
+        // Tokens issued before families were introduced start their own family
+        String familyId = claims.get("family", String.class);
 
-        User user = storedToken.getUser();
-        SecurityUser securityUser = new SecurityUser(user);
+        // 2. Rotate: the store claims the presented token (found, not expired, not revoked),
+        // revokes it and stores the replacement in one atomic step; reuse revokes the family
+        IssuedRefreshToken newRefreshToken = jwtService.issueRefreshToken(userId, familyId);
+        SecurityUser securityUser = refreshTokenStore.rotate(jti, newRefreshToken);
 
+        // 3. Issue a new access token for the token's owner
         String newAccessToken = jwtService.generateAccessToken(securityUser);
-        String newRefreshToken = jwtService.generateRefreshToken(user);
 
         return LoginResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(newRefreshToken)
+                .refreshToken(newRefreshToken.token())
                 .build();
 
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void logout(LogoutRequest request, String authHeader) {
         String token = request.getRefreshToken();
 
@@ -218,18 +220,14 @@ public class AuthService {
         Claims claims = jwtService.validateRefreshToken(token);
 
         String jti = claims.get("jti", String.class);
+        Long userId = Long.valueOf(claims.getSubject());
 
-        // 2. Load persisted refresh token
-        RefreshToken storedToken = refreshTokenRepository.findByJti(jti)
-                .orElseThrow(() -> new JwtException("Refresh token not found"));
-
-        // 3. Revoke (idempotent)
-        if (!storedToken.isRevoked()) {
-            storedToken.setRevoked(true);
-            refreshTokenRepository.save(storedToken);
+        // 2. Revoke stored refresh token (idempotent)
+        if (!refreshTokenStore.revoke(jti, userId)) {
+            throw new JwtException("Refresh token not found");
         }
 
-        // 4. Blacklist the access token (for immediate access cut)
+        // 3. Blacklist the access token (for immediate access cut)
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             throw new JwtException("Missing or invalid Authorization header");
         }
@@ -251,6 +249,24 @@ public class AuthService {
         }
     }
 
+    /**
+     * Ends every session of the user: revokes all refresh tokens and rejects
+     * every access token issued so far, on all nodes.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void logoutAll(Long userId) {
+        refreshTokenStore.revokeAll(userId);
+        tokenRevocationService.revokeAllTokens(userId);
+    }
+
+    /**
+     * Lists the user's active refresh token sessions.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<RefreshTokenStore.RefreshSession> activeSessions(Long userId) {
+        return refreshTokenStore.activeSessions(userId);
+    }
+
     /**
      * Generates a random 6-digit numeric code.
      */
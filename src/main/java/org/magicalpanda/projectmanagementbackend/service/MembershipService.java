@@ -1,25 +1,42 @@
 package org.magicalpanda.projectmanagementbackend.service;
 
 import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.InviteOutcome;
 import org.magicalpanda.projectmanagementbackend.dto.request.CreateMembershipRequest;
 import org.magicalpanda.projectmanagementbackend.dto.request.UpdateMembershipRequest;
+import org.magicalpanda.projectmanagementbackend.dto.response.CursorPageResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.InviteResultResponse;
 import org.magicalpanda.projectmanagementbackend.dto.response.MembershipResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.ProjectMemberResponse;
+import org.magicalpanda.projectmanagementbackend.event.MembershipChangedEvent;
+import org.magicalpanda.projectmanagementbackend.event.MembershipsChangedEvent;
 import org.magicalpanda.projectmanagementbackend.exception.ResourceNotFoundException;
 import org.magicalpanda.projectmanagementbackend.model.Membership;
 import org.magicalpanda.projectmanagementbackend.model.Project;
 import org.magicalpanda.projectmanagementbackend.model.User;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
+import org.magicalpanda.projectmanagementbackend.policy.MembershipContext;
 import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
 import org.magicalpanda.projectmanagementbackend.repository.ProjectRepository;
 import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.magicalpanda.projectmanagementbackend.util.CursorCodec;
+import org.magicalpanda.projectmanagementbackend.util.SecurityUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -27,8 +44,10 @@ import java.util.List;
 public class MembershipService {
 
     private final MembershipRepository membershipRepository;
+    private final MembershipContext membershipContext;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Only ADMIN or project owner, (active) manager can invite members
     @PreAuthorize("@membershipPolicy.canInvite(#projectId, #actorId)")
@@ -38,14 +57,17 @@ public class MembershipService {
             CreateMembershipRequest request
     ) {
 
-        Membership membership = membershipRepository.findByProjectIdAndUserId(projectId, request.getUserId()).orElse(null);
+        Membership membership = membershipContext.of(projectId, request.getUserId()).orElse(null);
 
         if (membership != null) {
             if (membership.getStatus().equals(MembershipStatus.ACTIVE) || membership.getStatus().equals(MembershipStatus.PENDING)) {
                 throw new IllegalStateException("An active/pending membership already exists !");
             }
+            MembershipStatus previousStatus = membership.getStatus();
             membership.setStatus(MembershipStatus.PENDING);
             membershipRepository.save(membership);
+            eventPublisher.publishEvent(new MembershipChangedEvent(
+                    request.getUserId(), projectId, previousStatus, MembershipStatus.PENDING));
 
             return MembershipResponse.from(membership);
         }
@@ -64,24 +86,177 @@ public class MembershipService {
                 .build();
 
         membershipRepository.save(membership);
+        membershipContext.remember(membership);
+        eventPublisher.publishEvent(new MembershipChangedEvent(user.getId(), projectId, null, MembershipStatus.PENDING));
 
         return MembershipResponse.from(membership);
     }
 
+    /**
+     * Invites many users to a project: one authorization check, one IN-query for existing
+     * memberships, one for users and batched inserts. Users that cannot be invited are
+     * reported per user instead of failing the whole batch.
+     */
+    @PreAuthorize("@membershipPolicy.canInvite(#projectId, #actorId)")
+    public List<InviteResultResponse> createMemberships(Long projectId, Long actorId, List<Long> userIds) {
+
+        // 1. Distinct ids, in request order
+        Set<Long> requested = new LinkedHashSet<>(userIds);
+
+        // 2. Existing memberships of the requested users
+        Map<Long, Membership> existing = new HashMap<>();
+        for (Membership membership : membershipRepository.findByProjectIdAndUserIdIn(projectId, requested)) {
+            existing.put(membership.getUser().getId(), membership);
+        }
+
+        // 3. Which of the remaining users exist
+        List<Long> candidates = requested.stream()
+                .filter(userId -> !existing.containsKey(userId))
+                .toList();
+        Set<Long> existingUsers = candidates.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findExistingIds(candidates));
+
+        // 4. For owners/managers the policy has seen their membership, so only admins need the check
+        if (SecurityUtils.isAdmin() && !projectRepository.existsById(projectId)) {
+            throw new ResourceNotFoundException("Project", projectId);
+        }
+        Project project = projectRepository.getReferenceById(projectId);
+
+        // 5. Reinvite, skip or create, per user
+        List<Invite> invites = new ArrayList<>(requested.size());
+        List<Membership> created = new ArrayList<>();
+        List<MembershipChangedEvent> changes = new ArrayList<>();
+
+        for (Long userId : requested) {
+            Membership membership = existing.get(userId);
+
+            if (membership != null) {
+                MembershipStatus previousStatus = membership.getStatus();
+                if (previousStatus == MembershipStatus.ACTIVE || previousStatus == MembershipStatus.PENDING) {
+                    invites.add(new Invite(userId, InviteOutcome.ALREADY_MEMBER, membership));
+                } else {
+                    membership.setStatus(MembershipStatus.PENDING);
+                    changes.add(new MembershipChangedEvent(userId, projectId, previousStatus, MembershipStatus.PENDING));
+                    invites.add(new Invite(userId, InviteOutcome.REINVITED, membership));
+                }
+            } else if (existingUsers.contains(userId)) {
+                membership = Membership.builder()
+                        .user(userRepository.getReferenceById(userId))
+                        .project(project)
+                        .role(ProjectRole.MEMBER)
+                        .status(MembershipStatus.PENDING)
+                        .build();
+                created.add(membership);
+                changes.add(new MembershipChangedEvent(userId, projectId, null, MembershipStatus.PENDING));
+                invites.add(new Invite(userId, InviteOutcome.INVITED, membership));
+            } else {
+                invites.add(new Invite(userId, InviteOutcome.USER_NOT_FOUND, null));
+            }
+        }
+
+        // 6. Ids are assigned in memory, so the inserts and reinvite updates are sent as JDBC batches on flush
+        membershipRepository.saveAll(created);
+        created.forEach(membershipContext::remember);
+
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new MembershipsChangedEvent(changes));
+        }
+
+        // 7. Results are built only now: new memberships get their id when saveAll persists them
+        return invites.stream()
+                .map(Invite::toResponse)
+                .toList();
+    }
+
+    /**
+     * Keyset pagination over a project's members with the given status, grouped by role
+     * (OWNER, MANAGER, MEMBER) and by id within a role. Each role group is one index range,
+     * so a page costs the same at any depth; a page crossing groups runs one query per group.
+     *
+     * @param roles  roles to list, null or empty for all
+     * @param cursor nextCursor of the previous page, null or blank for the first page
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("@projectPolicy.canViewMembers(#projectId, #userId, #status)")
+    public CursorPageResponse<ProjectMemberResponse> getProjectMembers(
+            Long projectId,
+            Long userId,
+            List<ProjectRole> roles,
+            MembershipStatus status,
+            String cursor,
+            int size
+    ) {
+        if (size < 1 || size > ProjectService.MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + ProjectService.MAX_CURSOR_PAGE_SIZE);
+        }
+
+        List<ProjectRole> groups = (roles == null || roles.isEmpty())
+                ? List.of(ProjectRole.values())
+                : roles.stream().distinct().sorted().toList();
+
+        // 1. Position: after the cursor's (role, id), or the start of the first group
+        int group = 0;
+        Long afterId = 0L;
+
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = CursorCodec.decode(cursor, 2);
+            try {
+                group = groups.indexOf(ProjectRole.valueOf(position[0]));
+                afterId = Long.valueOf(position[1]);
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid cursor", ex);
+            }
+            if (group < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // 2. Fill the page (plus one row to know whether there is a next page) group by group
+        List<ProjectMemberResponse> rows = new ArrayList<>(size + 1);
+        for (; group < groups.size() && rows.size() <= size; group++, afterId = 0L) {
+            rows.addAll(membershipRepository.findMembersAfter(
+                    projectId,
+                    status,
+                    groups.get(group),
+                    afterId,
+                    PageRequest.of(0, size + 1 - rows.size())
+            ));
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<ProjectMemberResponse> page = hasNext ? rows.subList(0, size) : rows;
+
+        // 3. Next cursor = (role, id) of the last returned row
+        String nextCursor = null;
+        if (hasNext) {
+            ProjectMemberResponse last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.getRole().name(), last.getMembershipId().toString());
+        }
+
+        return CursorPageResponse.<ProjectMemberResponse>builder()
+                .content(page)
+                .size(page.size())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     @PreAuthorize("@membershipPolicy.canUpdate(#membershipId, #actorId)")
     public void updateMembership(Long membershipId, Long actorId, UpdateMembershipRequest request) {
 
-        Membership membership = membershipRepository.findById(membershipId)
+        // Both were loaded by membershipPolicy.canUpdate in this request
+        Membership membership = membershipContext.byId(membershipId)
                 .orElseThrow(() -> new ResourceNotFoundException("Membership", membershipId));
 
-        Membership actorMembership = membershipRepository
-                .findByUserIdAndProjectId(
-                        actorId,
-                        membership.getProject().getId()
+        Membership actorMembership = membershipContext
+                .of(
+                        membership.getProject().getId(),
+                        actorId
                 )
                 .orElseThrow(() -> new ResourceNotFoundException("No membership against this found project for actor's id: " + actorId));
 
         boolean isSelf = actorId.equals(membership.getUser().getId());
+        MembershipStatus previousStatus = membership.getStatus();
 
         // If status is provided, update (if valid)
         if (request.getStatus() != null) {
@@ -93,6 +268,9 @@ public class MembershipService {
             validateRoleUpdate(actorMembership, request.getRole());
             membership.setRole(request.getRole());
         }
+
+        eventPublisher.publishEvent(new MembershipChangedEvent(
+                membership.getUser().getId(), membership.getProject().getId(), previousStatus, membership.getStatus()));
     }
 
     private void validateStatusUpdate(boolean isSelf, Membership actorMembership) {
@@ -117,5 +295,18 @@ public class MembershipService {
         }
     }
 
+    // Outcome of one user of a batch invite; membership is null for USER_NOT_FOUND
+    private record Invite(Long userId, InviteOutcome outcome, Membership membership) {
+
+        InviteResultResponse toResponse() {
+            return InviteResultResponse.builder()
+                    .userId(userId)
+                    .outcome(outcome)
+                    .membershipId(membership == null ? null : membership.getId())
+                    .status(membership == null ? null : membership.getStatus())
+                    .build();
+        }
+    }
+
 
 }
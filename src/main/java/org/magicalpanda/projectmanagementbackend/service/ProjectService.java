@@ -4,23 +4,35 @@ import lombok.RequiredArgsConstructor;
 import org.magicalpanda.projectmanagementbackend.dto.enumeration.ProjectStatusFilter;
 import org.magicalpanda.projectmanagementbackend.dto.request.CreateProjectRequest;
 import org.magicalpanda.projectmanagementbackend.dto.request.UpdateProjectRequest;
+import org.magicalpanda.projectmanagementbackend.dto.response.CursorPageResponse;
 import org.magicalpanda.projectmanagementbackend.dto.response.ProjectDetailsResponse;
 import org.magicalpanda.projectmanagementbackend.dto.response.ProjectResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.ProjectStatsResponse;
 import org.magicalpanda.projectmanagementbackend.dto.response.ProjectSummaryResponse;
+import org.magicalpanda.projectmanagementbackend.event.MembershipChangedEvent;
 import org.magicalpanda.projectmanagementbackend.exception.InvalidStateTransition;
 import org.magicalpanda.projectmanagementbackend.exception.ResourceNotFoundException;
 import org.magicalpanda.projectmanagementbackend.model.Membership;
 import org.magicalpanda.projectmanagementbackend.model.Project;
+import org.magicalpanda.projectmanagementbackend.model.ProjectStats;
 import org.magicalpanda.projectmanagementbackend.model.User;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
 import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.policy.MembershipContext;
 import org.magicalpanda.projectmanagementbackend.policy.ProjectPolicy;
 import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
 import org.magicalpanda.projectmanagementbackend.repository.ProjectRepository;
+import org.magicalpanda.projectmanagementbackend.repository.ProjectStatsRepository;
 import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.magicalpanda.projectmanagementbackend.repository.projection.ProjectSummaryRow;
+import org.magicalpanda.projectmanagementbackend.repository.projection.ProjectVersionRow;
+import org.magicalpanda.projectmanagementbackend.util.CursorCodec;
+import org.magicalpanda.projectmanagementbackend.util.ResourceVersion;
 import org.magicalpanda.projectmanagementbackend.util.SecurityUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
@@ -28,6 +40,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -37,6 +50,18 @@ public class ProjectService {
     private final ProjectRepository projectRepository;
     private final MembershipRepository membershipRepository;
     private final UserRepository userRepository;
+    private final ProjectStatsRepository projectStatsRepository;
+    private final MembershipContext membershipContext;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    // Non-admins can view project details with restricted statuses (not deleted)
+    private static final List<ProjectStatus> DETAILS_VISIBLE_STATUSES =
+            List.of(ProjectStatus.IN_PROGRESS, ProjectStatus.COMPLETED, ProjectStatus.ARCHIVED);
+
+    // Later than any stored createdAt, so the first cursor page starts at the newest row
+    private static final Instant CURSOR_START = Instant.parse("9999-12-31T23:59:59Z");
 
     public ProjectResponse createProject(CreateProjectRequest request, Long userId) {
 
@@ -52,6 +77,7 @@ public class ProjectService {
                 .build();
 
         projectRepository.save(project);
+        projectStatsRepository.save(ProjectStats.builder().projectId(project.getId()).build());
 
         // 2. Create membership
         Membership ownerMembership = Membership.builder()
@@ -63,6 +89,7 @@ public class ProjectService {
                 .build();
 
         membershipRepository.save(ownerMembership);
+        eventPublisher.publishEvent(new MembershipChangedEvent(owner.getId(), project.getId(), null, MembershipStatus.ACTIVE));
 
         return ProjectResponse.builder()
                 .id(project.getId())
@@ -74,46 +101,80 @@ public class ProjectService {
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public Page<ProjectSummaryResponse> getMyProjects(Long userId, String scope, List<ProjectStatusFilter> status, Pageable pageable) {
 
-        Page<Membership> memberships;
         List<ProjectStatus> resolvedStatus = ProjectPolicy.resolveVisibleStatuses(status);
 
-        // set default scope to "all"
-        String resolvedScope = (scope == null) ? "all" : scope.toLowerCase();
+        return membershipRepository.findProjectSummaries(
+                userId,
+                MembershipStatus.ACTIVE,
+                resolveScopeRoles(scope),
+                resolvedStatus,
+                pageable
+        );
+    }
 
-        memberships = switch (resolvedScope) {
-
-            case "owned" -> membershipRepository
-                    .findByUserIdAndRoleAndStatusAndProject_StatusIn(
-                            userId,
-                            ProjectRole.OWNER,
-                            MembershipStatus.ACTIVE,
-                            resolvedStatus,
-                            pageable
-                    );
-
-            case "member" -> membershipRepository
-                    .findByUserIdAndRoleInAndStatusAndProject_StatusIn(
-                            userId,
-                            List.of(ProjectRole.MANAGER, ProjectRole.MEMBER),
-                            MembershipStatus.ACTIVE,
-                            resolvedStatus,
-                            pageable
-                    );
-
-            case "all" -> membershipRepository
-                    .findByUserIdAndStatusAndProject_StatusIn(
-                            userId,
-                            MembershipStatus.ACTIVE,
-                            resolvedStatus,
-                            pageable
-                    );
+    /**
+     * Keyset pagination over the same listing, newest membership first. Every page costs
+     * one index seek, however deep; there are no totals.
+     *
+     * @param cursor nextCursor of the previous page, null or blank for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<ProjectSummaryResponse> getMyProjectsByCursor(
+            Long userId,
+            String scope,
+            List<ProjectStatusFilter> status,
+            String cursor,
+            int size
+    ) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
 
-            default -> throw new IllegalArgumentException("Invalid scope provided: " + scope + ", possible values: all, owned, member");
-        };
+        List<ProjectStatus> resolvedStatus = ProjectPolicy.resolveVisibleStatuses(status);
+
+        // 1. Position: after the cursor's (createdAt, id), or before everything for the first page
+        Instant afterCreatedAt = CURSOR_START;
+        Long afterId = Long.MAX_VALUE;
+
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = CursorCodec.decode(cursor, 2);
+            try {
+                afterCreatedAt = Instant.parse(position[0]);
+                afterId = Long.valueOf(position[1]);
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid cursor", ex);
+            }
+        }
+
+        // 2. Fetch one extra row to know whether there is a next page
+        List<ProjectSummaryRow> rows = membershipRepository.findProjectSummariesBefore(
+                userId,
+                MembershipStatus.ACTIVE,
+                resolveScopeRoles(scope),
+                resolvedStatus,
+                afterCreatedAt,
+                afterId,
+                PageRequest.of(0, size + 1)
+        );
+
+        boolean hasNext = rows.size() > size;
+        List<ProjectSummaryRow> page = hasNext ? rows.subList(0, size) : rows;
+
+        // 3. Next cursor = sort key of the last returned row
+        String nextCursor = null;
+        if (hasNext) {
+            ProjectSummaryRow last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.membershipCreatedAt().toString(), last.membershipId().toString());
+        }
 
-        return memberships.map(this::toProjectSummary);
+        return CursorPageResponse.<ProjectSummaryResponse>builder()
+                .content(page.stream().map(ProjectSummaryRow::toResponse).toList())
+                .size(size)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -129,18 +190,13 @@ public class ProjectService {
         } else {
             // Non-admins can view project details with restricted statuses (archived or in progress only)
             project = projectRepository
-                    .findByIdAndStatusIn(
-                            projectId,
-                            List.of(
-                                    ProjectStatus.IN_PROGRESS,
-                                    ProjectStatus.COMPLETED,
-                                    ProjectStatus.ARCHIVED
-                            ))
+                    .findByIdAndStatusIn(projectId, DETAILS_VISIBLE_STATUSES)
                     .orElseThrow(() -> new ResourceNotFoundException("Project not found with id: " + projectId));
         }
 
-        Membership membership = membershipRepository
-                .findByProjectIdAndUserIdAndStatus(projectId, userId, MembershipStatus.ACTIVE)
+        Membership membership = membershipContext
+                .of(projectId, userId)
+                .filter(m -> m.getStatus() == MembershipStatus.ACTIVE)
                 .orElse(null); // ADMIN may not have membership
 
         ProjectRole myRole = (membership != null) ? membership.getRole() : null;
@@ -153,9 +209,54 @@ public class ProjectService {
                 .createdAt(project.getCreatedAt())
                 .myRole(myRole)
                 .joinedAt(joinedAt)
+                .stats(projectStatsRepository.findById(projectId).map(ProjectStatsResponse::from).orElse(null))
                 .build();
     }
 
+    /**
+     * Validators of getProjectDetails for the same caller, from one version probe: lets a
+     * conditional GET be answered with 304 without loading the project.
+     *
+     * @return empty if the project is not visible (the full request then reports why)
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("@projectPolicy.canViewProject(#projectId, #userId)")
+    public Optional<ResourceVersion> getProjectDetailsVersion(Long projectId, Long userId) {
+        boolean isAdmin = SecurityUtils.isAdmin();
+
+        return projectRepository
+                .findDetailsVersion(
+                        projectId,
+                        userId,
+                        isAdmin ? List.of(ProjectStatus.values()) : DETAILS_VISIBLE_STATUSES
+                )
+                .map(row -> ResourceVersion.of(
+                        userId,
+                        isAdmin,
+                        row.projectUpdatedAt(),
+                        row.membershipUpdatedAt(),
+                        row.statsUpdatedAt()
+                ));
+    }
+
+    /**
+     * Validators of the user's project listing (page and cursor modes): changes whenever any
+     * project, membership or stats row behind any page changes.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getMyProjectsVersion(Long userId) {
+        ProjectVersionRow row = membershipRepository.findListingVersion(userId);
+
+        return ResourceVersion.of(
+                userId,
+                SecurityUtils.isAdmin(),
+                row.memberships(),
+                row.projectUpdatedAt(),
+                row.membershipUpdatedAt(),
+                row.statsUpdatedAt()
+        );
+    }
+
     // Only for ADMIN or active members (OWNER, MANAGER)
     @PreAuthorize("@projectPolicy.canUpdateProject(#projectId, #userId)")
     public void updateProject(
@@ -196,15 +297,17 @@ public class ProjectService {
         }
     }
 
-    private ProjectSummaryResponse toProjectSummary(Membership membership) {
-        Project project = membership.getProject();
+    /**
+     * Maps the scope request parameter (all, owned, member; default all) to membership roles.
+     */
+    private static List<ProjectRole> resolveScopeRoles(String scope) {
+        String resolvedScope = (scope == null) ? "all" : scope.toLowerCase();
 
-        return ProjectSummaryResponse.builder()
-                .id(project.getId())
-                .name(project.getName())
-                .status(project.getStatus())
-                .role(membership.getRole())
-                .createdAt(project.getCreatedAt())
-                .build();
+        return switch (resolvedScope) {
+            case "owned" -> List.of(ProjectRole.OWNER);
+            case "member" -> List.of(ProjectRole.MANAGER, ProjectRole.MEMBER);
+            case "all" -> List.of(ProjectRole.values());
+            default -> throw new IllegalArgumentException("Invalid scope provided: " + scope + ", possible values: all, owned, member");
+        };
     }
 }
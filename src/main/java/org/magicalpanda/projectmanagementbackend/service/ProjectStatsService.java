@@ -0,0 +1,257 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.magicalpanda.projectmanagementbackend.event.MembershipChangedEvent;
+import org.magicalpanda.projectmanagementbackend.event.MembershipsChangedEvent;
+import org.magicalpanda.projectmanagementbackend.event.TaskChangedEvent;
+import org.magicalpanda.projectmanagementbackend.event.TasksChangedEvent;
+import org.magicalpanda.projectmanagementbackend.model.ProjectStats;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
+import org.magicalpanda.projectmanagementbackend.repository.ProjectRepository;
+import org.magicalpanda.projectmanagementbackend.repository.ProjectStatsRepository;
+import org.magicalpanda.projectmanagementbackend.repository.TaskRepository;
+import org.magicalpanda.projectmanagementbackend.repository.projection.MembershipCountRow;
+import org.magicalpanda.projectmanagementbackend.repository.projection.TaskCountRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the project_stats read model.
+ *
+ * Each membership or task change is applied as a delta with one atomic update, in the same
+ * transaction just before it commits, so the stats row stays locked until the change is
+ * visible. The periodic rebuild locks the rows of a batch before recounting them with two
+ * GROUP BY queries, so a delta is either already counted or applied after the overwrite.
+ * Projects without a stats row are backfilled at startup.
+ */
+@Slf4j
+@Service
+public class ProjectStatsService {
+
+    private final ProjectStatsRepository projectStatsRepository;
+    private final ProjectRepository projectRepository;
+    private final MembershipRepository membershipRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ProjectStatsService(
+            ProjectStatsRepository projectStatsRepository,
+            ProjectRepository projectRepository,
+            MembershipRepository membershipRepository,
+            TaskRepository taskRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.project-stats.rebuild-batch-size:500}") int batchSize
+    ) {
+        this.projectStatsRepository = projectStatsRepository;
+        this.projectRepository = projectRepository;
+        this.membershipRepository = membershipRepository;
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    @Transactional
+    public void onMembershipChanged(MembershipChangedEvent event) {
+        long activeMembers = count(event.status(), MembershipStatus.ACTIVE) - count(event.previousStatus(), MembershipStatus.ACTIVE);
+        long pendingInvites = count(event.status(), MembershipStatus.PENDING) - count(event.previousStatus(), MembershipStatus.PENDING);
+
+        if (activeMembers == 0 && pendingInvites == 0) {
+            return;
+        }
+
+        projectStatsRepository.applyDelta(event.projectId(), activeMembers, pendingInvites, 0, 0, 0, 0, 0, 0);
+    }
+
+    // One update per project, not per membership, in project id order
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    @Transactional
+    public void onMembershipsChanged(MembershipsChangedEvent event) {
+        Map<Long, long[]> deltas = new TreeMap<>();
+
+        for (MembershipChangedEvent change : event.changes()) {
+            long[] delta = deltas.computeIfAbsent(change.projectId(), id -> new long[2]);
+            delta[0] += count(change.status(), MembershipStatus.ACTIVE) - count(change.previousStatus(), MembershipStatus.ACTIVE);
+            delta[1] += count(change.status(), MembershipStatus.PENDING) - count(change.previousStatus(), MembershipStatus.PENDING);
+        }
+
+        deltas.forEach((projectId, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0) {
+                projectStatsRepository.applyDelta(projectId, delta[0], delta[1], 0, 0, 0, 0, 0, 0);
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    @Transactional
+    public void onTaskChanged(TaskChangedEvent event) {
+        applyTaskDeltas(List.of(event));
+    }
+
+    // One update per project, not per task, in project id order
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    @Transactional
+    public void onTasksChanged(TasksChangedEvent event) {
+        applyTaskDeltas(event.changes());
+    }
+
+    private void applyTaskDeltas(List<TaskChangedEvent> changes) {
+        // projectId -> todo, in progress, completed, low, medium, high
+        Map<Long, long[]> deltas = new TreeMap<>();
+
+        for (TaskChangedEvent change : changes) {
+            if (change.previousStatus() == change.status() && change.previousPriority() == change.priority()) {
+                continue;
+            }
+
+            long[] delta = deltas.computeIfAbsent(change.projectId(), id -> new long[6]);
+            delta[0] += count(change.status(), TaskStatus.TODO) - count(change.previousStatus(), TaskStatus.TODO);
+            delta[1] += count(change.status(), TaskStatus.IN_PROGRESS) - count(change.previousStatus(), TaskStatus.IN_PROGRESS);
+            delta[2] += count(change.status(), TaskStatus.COMPLETED) - count(change.previousStatus(), TaskStatus.COMPLETED);
+            delta[3] += count(change.priority(), TaskPriority.LOW) - count(change.previousPriority(), TaskPriority.LOW);
+            delta[4] += count(change.priority(), TaskPriority.MEDIUM) - count(change.previousPriority(), TaskPriority.MEDIUM);
+            delta[5] += count(change.priority(), TaskPriority.HIGH) - count(change.previousPriority(), TaskPriority.HIGH);
+        }
+
+        deltas.forEach((projectId, delta) -> projectStatsRepository.applyDelta(
+                projectId, 0, 0, delta[0], delta[1], delta[2], delta[3], delta[4], delta[5]));
+    }
+
+    /**
+     * Recounts every project and overwrites its stats row, creating missing rows.
+     *
+     * @return number of projects recounted
+     */
+    @Scheduled(
+            initialDelayString = "${app.project-stats.rebuild-interval:86400}",
+            fixedDelayString = "${app.project-stats.rebuild-interval:86400}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public long rebuild() {
+        long rebuilt = rebuild(projectRepository::findIdsAfter);
+        log.info("Project stats rebuilt for {} projects", rebuilt);
+        return rebuilt;
+    }
+
+    // Runs in the background once the application is up (@Async methods may only return void or a Future)
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfill();
+    }
+
+    /**
+     * Counts the projects that have no stats row yet (created before the read model existed),
+     * so they do not show empty counters until the first scheduled rebuild.
+     *
+     * @return number of stats rows created
+     */
+    public long backfill() {
+        long created = rebuild(projectRepository::findIdsWithoutStatsAfter);
+        if (created > 0) {
+            log.info("Project stats backfilled for {} projects", created);
+        }
+        return created;
+    }
+
+    private long rebuild(BiFunction<Long, Pageable, List<Long>> nextBatch) {
+        long rebuilt = 0;
+        Long afterId = 0L;
+
+        try {
+            while (true) {
+                // 1. Next batch of project ids (primary key range)
+                List<Long> ids = nextBatch.apply(afterId, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                // 2. Recount and overwrite the batch in a short transaction of its own
+                transactionTemplate.executeWithoutResult(status -> rebuildBatch(ids));
+                rebuilt += ids.size();
+                afterId = ids.get(ids.size() - 1);
+
+                if (ids.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Project stats rebuild stopped after {} projects", rebuilt, ex);
+        }
+
+        return rebuilt;
+    }
+
+    private void rebuildBatch(List<Long> projectIds) {
+        // Deltas wait on these locks until the batch commits, instead of landing between the count and the write
+        Map<Long, ProjectStats> stats = projectStatsRepository.findAllForUpdate(projectIds).stream()
+                .collect(Collectors.toMap(ProjectStats::getProjectId, Function.identity()));
+
+        Map<Long, ProjectStats> recounted = new HashMap<>();
+        for (Long projectId : projectIds) {
+            ProjectStats row = stats.getOrDefault(projectId, ProjectStats.builder().projectId(projectId).build());
+            row.setActiveMembers(0);
+            row.setPendingInvites(0);
+            row.setTasksTodo(0);
+            row.setTasksInProgress(0);
+            row.setTasksCompleted(0);
+            row.setTasksLow(0);
+            row.setTasksMedium(0);
+            row.setTasksHigh(0);
+            recounted.put(projectId, row);
+        }
+
+        for (MembershipCountRow count : membershipRepository.countByProject(projectIds)) {
+            ProjectStats row = recounted.get(count.projectId());
+            switch (count.status()) {
+                case ACTIVE -> row.setActiveMembers(count.count());
+                case PENDING -> row.setPendingInvites(count.count());
+                default -> { }
+            }
+        }
+
+        for (TaskCountRow count : taskRepository.countByProject(projectIds)) {
+            ProjectStats row = recounted.get(count.projectId());
+            switch (count.status()) {
+                case TODO -> row.setTasksTodo(row.getTasksTodo() + count.count());
+                case IN_PROGRESS -> row.setTasksInProgress(row.getTasksInProgress() + count.count());
+                case COMPLETED -> row.setTasksCompleted(row.getTasksCompleted() + count.count());
+            }
+            switch (count.priority()) {
+                case LOW -> row.setTasksLow(row.getTasksLow() + count.count());
+                case MEDIUM -> row.setTasksMedium(row.getTasksMedium() + count.count());
+                case HIGH -> row.setTasksHigh(row.getTasksHigh() + count.count());
+            }
+        }
+
+        projectStatsRepository.saveAll(recounted.values());
+    }
+
+    private static long count(Enum<?> value, Enum<?> bucket) {
+        return value == bucket ? 1 : 0;
+    }
+}
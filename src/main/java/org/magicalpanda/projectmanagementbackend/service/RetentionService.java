@@ -0,0 +1,148 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.magicalpanda.projectmanagementbackend.repository.RefreshTokenRepository;
+import org.magicalpanda.projectmanagementbackend.repository.VerificationCodeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Deletes expired refresh tokens and verification codes in the background.
+ *
+ * Rows are removed in small batches: select a page of ids through the expires_at index,
+ * delete them by primary key in a short transaction of its own, pause, repeat. A run stops
+ * after max-batches-per-run, leaving the rest for the next one, so it never holds long locks
+ * or saturates the database.
+ *
+ * Revoked refresh tokens are kept until they expire (plus the retention window), since reuse
+ * detection needs them. Several nodes may run the job concurrently; deleting by id is idempotent.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class RetentionService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final VerificationCodeRepository verificationCodeRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final int batchSize;
+    private final Duration batchPause;
+    private final int maxBatchesPerRun;
+    private final Duration refreshTokenRetention;
+    private final Duration verificationCodeRetention;
+
+    public RetentionService(
+            RefreshTokenRepository refreshTokenRepository,
+            VerificationCodeRepository verificationCodeRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.retention.batch-size:500}") int batchSize,
+            @Value("${app.retention.batch-pause:100ms}") Duration batchPause,
+            @Value("${app.retention.max-batches-per-run:200}") int maxBatchesPerRun,
+            @Value("${app.retention.refresh-tokens.retain-after-expiry:1d}") Duration refreshTokenRetention,
+            @Value("${app.retention.verification-codes.retain-after-expiry:1d}") Duration verificationCodeRetention
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.verificationCodeRepository = verificationCodeRepository;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.refreshTokenRetention = refreshTokenRetention;
+        this.verificationCodeRetention = verificationCodeRetention;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.retention.interval:3600}",
+            fixedDelayString = "${app.retention.interval:3600}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public void run() {
+        Instant now = Instant.now();
+
+        purge(
+                "refresh_tokens",
+                now.minus(refreshTokenRetention),
+                refreshTokenRepository::findExpiredIds,
+                refreshTokenRepository::deleteByIds
+        );
+
+        purge(
+                "verification_codes",
+                now.minus(verificationCodeRetention),
+                verificationCodeRepository::findExpiredIds,
+                verificationCodeRepository::deleteByIds
+        );
+    }
+
+    /**
+     * Deletes rows expired before the cutoff, batch by batch.
+     *
+     * @return number of rows deleted in this run
+     */
+    long purge(
+            String table,
+            Instant cutoff,
+            BiFunction<Instant, Pageable, List<Long>> expiredIds,
+            Function<Collection<Long>, Integer> deleteByIds
+    ) {
+        Counter deletedCounter = meterRegistry.counter("retention.deleted", "table", table);
+        Counter batchCounter = meterRegistry.counter("retention.batches", "table", table);
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        long deleted = 0;
+        int batches = 0;
+
+        try {
+            while (batches < maxBatchesPerRun) {
+
+                // 1. Next batch of ids (index range scan, no row locks)
+                List<Long> ids = expiredIds.apply(cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                // 2. Delete by primary key in a short transaction of its own
+                int removed = deleteByIds.apply(ids);
+                deleted += removed;
+                batches++;
+                deletedCounter.increment(removed);
+                batchCounter.increment();
+
+                if (ids.size() < batchSize) {
+                    break;
+                }
+
+                // 3. Throttle, giving other writers room between batches
+                Thread.sleep(batchPause.toMillis());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.warn("Retention of {} stopped after {} batches", table, batches, ex);
+        } finally {
+            sample.stop(meterRegistry.timer("retention.run", "table", table));
+        }
+
+        if (deleted > 0) {
+            log.info("Retention removed {} rows from {} in {} batches", deleted, table, batches);
+        }
+
+        return deleted;
+    }
+}
@@ -0,0 +1,230 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.ProjectStatusFilter;
+import org.magicalpanda.projectmanagementbackend.dto.response.SearchHitResponse;
+import org.magicalpanda.projectmanagementbackend.event.SearchDocumentChangedEvent;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.policy.ProjectPolicy;
+import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
+import org.magicalpanda.projectmanagementbackend.repository.ProjectRepository;
+import org.magicalpanda.projectmanagementbackend.repository.TaskRepository;
+import org.magicalpanda.projectmanagementbackend.repository.projection.SearchTextRow;
+import org.magicalpanda.projectmanagementbackend.search.SearchDocument;
+import org.magicalpanda.projectmanagementbackend.search.SearchDocumentType;
+import org.magicalpanda.projectmanagementbackend.search.SearchIndex;
+import org.magicalpanda.projectmanagementbackend.util.SecurityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Full-text search over project names/descriptions and task titles/descriptions.
+ *
+ * Every node keeps its own index. A node applies its committed project and task writes
+ * directly and announces their keys on "search-index-events"; the other nodes re-read those
+ * documents from the database, so the order messages arrive in does not matter. Pub/sub
+ * delivery is best effort, so a node also rebuilds when it starts with an empty index and on
+ * a schedule, and an admin rebuild is broadcast to every node.
+ *
+ * Every query is restricted to the projects the caller is an active member of, read from the
+ * database at query time, so a stale index entry never leaks a project the caller has left.
+ */
+@Slf4j
+@Service
+public class SearchService implements MessageListener {
+
+    public static final int MAX_RESULTS = 50;
+
+    public static final String CHANNEL = "search-index-events";
+    public static final String REBUILD_CHANNEL = "search-index-rebuild";
+
+    // Prefixes every message, so a node skips its own
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final SearchIndex searchIndex;
+    private final MembershipRepository membershipRepository;
+    private final ProjectRepository projectRepository;
+    private final TaskRepository taskRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final int batchSize;
+
+    public SearchService(
+            SearchIndex searchIndex,
+            MembershipRepository membershipRepository,
+            ProjectRepository projectRepository,
+            TaskRepository taskRepository,
+            StringRedisTemplate redisTemplate,
+            @Value("${app.search.rebuild-batch-size:500}") int batchSize
+    ) {
+        this.searchIndex = searchIndex;
+        this.membershipRepository = membershipRepository;
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.redisTemplate = redisTemplate;
+        this.batchSize = batchSize;
+    }
+
+    // A failed index update must not fail the committed write; the next rebuild repairs it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentChanged(SearchDocumentChangedEvent event) {
+        try {
+            if (event.document() == null) {
+                searchIndex.delete(event.type(), event.id());
+            } else {
+                searchIndex.upsert(event.document());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not index {} {}", event.type(), event.id(), ex);
+        }
+
+        publish(CHANNEL, nodeId + "|" + SearchDocument.key(event.type(), event.id()));
+    }
+
+    // Changes and rebuilds announced by other nodes
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        String origin = separator < 0 ? body : body.substring(0, separator);
+
+        if (nodeId.equals(origin)) {
+            return;
+        }
+
+        if (REBUILD_CHANNEL.equals(channel)) {
+            rebuild();
+            return;
+        }
+
+        String key = body.substring(separator + 1);
+        int typeSeparator = key.indexOf(':');
+        reindex(SearchDocumentType.valueOf(key.substring(0, typeSeparator)), Long.parseLong(key.substring(typeSeparator + 1)));
+    }
+
+    // A node started without an index (new node, lost disk) fills it in the background
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (searchIndex.isEmpty()) {
+            log.info("Search index is empty, rebuilding");
+            rebuild();
+        }
+    }
+
+    /**
+     * @param status project statuses to search, resolved by ProjectPolicy.resolveVisibleStatuses
+     */
+    @Transactional(readOnly = true)
+    public List<SearchHitResponse> search(Long userId, String text, List<ProjectStatusFilter> status, int size) {
+        if (size < 1 || size > MAX_RESULTS) {
+            throw new IllegalArgumentException("Result size must be between 1 and " + MAX_RESULTS);
+        }
+
+        List<ProjectStatus> projectStatuses = ProjectPolicy.resolveVisibleStatuses(status);
+
+        // Admins see every project, like everywhere else
+        List<Long> projectIds = SecurityUtils.isAdmin()
+                ? null
+                : membershipRepository.findProjectIds(userId, MembershipStatus.ACTIVE, projectStatuses);
+
+        return searchIndex.search(text, projectIds, size);
+    }
+
+    /**
+     * Rebuilds the index of this node now and asks every other node to rebuild its own.
+     *
+     * @return number of documents indexed on this node
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public long rebuildAllNodes() {
+        publish(REBUILD_CHANNEL, nodeId);
+        return rebuild();
+    }
+
+    /**
+     * Re-indexes every project and task from the database into this node's index, batch by
+     * batch. Scheduled to repair changes whose announcements this node missed.
+     *
+     * @return number of documents indexed
+     */
+    @Scheduled(
+            initialDelayString = "${app.search.rebuild-interval:86400}",
+            fixedDelayString = "${app.search.rebuild-interval:86400}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public long rebuild() {
+        long[] indexed = new long[1];
+
+        // A failure rolls the index back and propagates
+        searchIndex.rebuild(() -> {
+            indexed[0] += reindexAll(SearchDocumentType.PROJECT, projectRepository::findSearchTextAfter);
+            indexed[0] += reindexAll(SearchDocumentType.TASK, taskRepository::findSearchTextAfter);
+        });
+
+        log.info("Search index rebuilt with {} documents", indexed[0]);
+        return indexed[0];
+    }
+
+    // Current state from the database: the message may be older than another one already applied
+    private void reindex(SearchDocumentType type, Long id) {
+        try {
+            Optional<SearchTextRow> row = type == SearchDocumentType.PROJECT
+                    ? projectRepository.findSearchText(id)
+                    : taskRepository.findSearchText(id);
+
+            row.ifPresentOrElse(
+                    text -> searchIndex.upsert(new SearchDocument(type, text.id(), text.projectId(), text.title(), text.description())),
+                    () -> searchIndex.delete(type, id)
+            );
+        } catch (RuntimeException ex) {
+            log.warn("Could not index {} {}", type, id, ex);
+        }
+    }
+
+    private void publish(String channel, String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException ex) {
+            log.warn("Could not announce search index change on {}", channel, ex);
+        }
+    }
+
+    private long reindexAll(SearchDocumentType type, BiFunction<Long, PageRequest, List<SearchTextRow>> batches) {
+        long indexed = 0;
+        Long afterId = 0L;
+
+        while (true) {
+            List<SearchTextRow> rows = batches.apply(afterId, PageRequest.of(0, batchSize));
+
+            for (SearchTextRow row : rows) {
+                searchIndex.upsert(new SearchDocument(type, row.id(), row.projectId(), row.title(), row.description()));
+            }
+            indexed += rows.size();
+
+            if (rows.size() < batchSize) {
+                return indexed;
+            }
+            afterId = rows.get(rows.size() - 1).id();
+        }
+    }
+}
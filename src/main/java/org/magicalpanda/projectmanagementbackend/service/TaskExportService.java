@@ -0,0 +1,258 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.TaskExportFormat;
+import org.magicalpanda.projectmanagementbackend.dto.response.TaskAssigneeResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.TaskExportResponse;
+import org.magicalpanda.projectmanagementbackend.exception.ServiceOverloadedException;
+import org.magicalpanda.projectmanagementbackend.repository.TaskRepository;
+import org.magicalpanda.projectmanagementbackend.repository.projection.TaskExportRow;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Full export of a project's tasks and assignees, written to the response as it is read.
+ *
+ * Rows come from a forward-only stream of DTO projections (nothing enters the persistence
+ * context) in batches of the query's fetch size, and only the task being written is held in
+ * memory, so heap use does not grow with the project.
+ *
+ * A running export holds a database connection until the client has downloaded it, so
+ * exports run on their own small pool (app.task-export.threads, kept below the connection
+ * pool size) rather than on the shared request threads. Exports waiting for a thread hold no
+ * connection; once that queue is full new exports are rejected with ServiceOverloadedException
+ * (503 + Retry-After).
+ */
+@Slf4j
+@Service
+public class TaskExportService implements DisposableBean {
+
+    private static final String CSV_HEADER =
+            "id,title,description,status,priority,due_date,created_at,updated_at,created_by,assignees";
+
+    // Bytes per response write; the emitter flushes after each one
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Duration timeout;
+
+    public TaskExportService(
+            TaskRepository taskRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.task-export.threads:2}") int threads,
+            @Value("${app.task-export.queue-capacity:8}") int queueCapacity,
+            @Value("${app.task-export.retry-after:30}") long retryAfterSeconds,
+            @Value("${app.task-export.timeout:30m}") Duration timeout,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize
+    ) {
+        if (threads >= connectionPoolSize) {
+            throw new IllegalStateException(
+                    "app.task-export.threads must be below the connection pool size (" + connectionPoolSize + ")");
+        }
+
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.timeout = timeout;
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("task-export-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Access is checked now; the tasks are read and written to the returned emitter by the
+     * export pool.
+     */
+    @PreAuthorize("@projectPolicy.canViewProject(#projectId, #userId)")
+    public ResponseBodyEmitter exportTasks(Long projectId, Long userId, TaskExportFormat format) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+
+        try {
+            executor.execute(() -> {
+                try (OutputStream out = new BufferedOutputStream(
+                        new EmitterOutputStream(emitter, format.getMediaType()), CHUNK_SIZE)) {
+                    writeTasks(projectId, format, out);
+                } catch (IOException | RuntimeException ex) {
+                    // Usually the client went away or the export timed out
+                    log.warn("Task export of project {} failed", projectId, ex);
+                    emitter.completeWithError(ex);
+                    return;
+                }
+                emitter.complete();
+            });
+        } catch (RejectedExecutionException ex) {
+            throw new ServiceOverloadedException(
+                    "Too many task exports in progress, please retry later",
+                    retryAfterSeconds
+            );
+        }
+
+        return emitter;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    // Reads the export in a read-only transaction of its own; access is checked by the caller
+    void writeTasks(Long projectId, TaskExportFormat format, OutputStream out) {
+        transactionTemplate.executeWithoutResult(status -> write(projectId, format, out));
+    }
+
+    private void write(Long projectId, TaskExportFormat format, OutputStream out) {
+        try (Stream<TaskExportRow> rows = taskRepository.streamForExport(projectId)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+            if (format == TaskExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            // 1. Collapse the consecutive rows of each task (one per assignee)
+            Iterator<TaskExportRow> iterator = rows.iterator();
+            TaskExportRow task = null;
+            List<TaskAssigneeResponse> assignees = new ArrayList<>();
+
+            while (iterator.hasNext()) {
+                TaskExportRow row = iterator.next();
+
+                if (task != null && !task.id().equals(row.id())) {
+                    writeTask(writer, format, task, assignees);
+                    assignees = new ArrayList<>();
+                }
+                task = row;
+                if (row.assigneeId() != null) {
+                    assignees.add(TaskAssigneeResponse.builder()
+                            .userId(row.assigneeId())
+                            .username(row.assigneeUsername())
+                            .build());
+                }
+            }
+            if (task != null) {
+                writeTask(writer, format, task, assignees);
+            }
+
+            // 2. The response stream itself is closed by the container
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeTask(
+            Writer writer,
+            TaskExportFormat format,
+            TaskExportRow task,
+            List<TaskAssigneeResponse> assignees
+    ) throws IOException {
+        switch (format) {
+            case CSV -> {
+                writer.write(task.id().toString());
+                writeCsvField(writer, task.title());
+                writeCsvField(writer, task.description());
+                writeCsvField(writer, task.status().name());
+                writeCsvField(writer, task.priority().name());
+                writeCsvField(writer, toString(task.dueDate()));
+                writeCsvField(writer, toString(task.createdAt()));
+                writeCsvField(writer, toString(task.updatedAt()));
+                writeCsvField(writer, task.createdBy());
+                writeCsvField(writer, String.join(";", assignees.stream().map(TaskAssigneeResponse::getUsername).toList()));
+            }
+            case NDJSON -> writer.write(objectMapper.writeValueAsString(TaskExportResponse.builder()
+                    .id(task.id())
+                    .title(task.title())
+                    .description(task.description())
+                    .status(task.status())
+                    .priority(task.priority())
+                    .dueDate(task.dueDate())
+                    .createdAt(task.createdAt())
+                    .updatedAt(task.updatedAt())
+                    .createdBy(task.createdBy())
+                    .assignees(assignees)
+                    .build()));
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180: quoted when it contains a separator, quote or line break; quotes doubled
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String toString(Instant instant) {
+        return instant == null ? null : instant.toString();
+    }
+
+    // Sends every buffered chunk to the client as one emitter write
+    private static final class EmitterOutputStream extends OutputStream {
+
+        private final ResponseBodyEmitter emitter;
+        private final MediaType mediaType;
+
+        private EmitterOutputStream(ResponseBodyEmitter emitter, MediaType mediaType) {
+            this.emitter = emitter;
+            this.mediaType = mediaType;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            emitter.send(Arrays.copyOfRange(bytes, offset, offset + length), mediaType);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.magicalpanda.projectmanagementbackend.repository.ProjectRepository;
+import org.magicalpanda.projectmanagementbackend.repository.TaskAssignmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains the task state copied onto task assignments for the "my tasks" feed (see
+ * TaskAssignment.taskOpen).
+ *
+ * Task writes keep the copies in sync themselves. This job re-copies them project batch by
+ * project batch to repair any write that bypassed the sync. It first runs right after
+ * startup, so assignments that existed before the columns were added (created as not open)
+ * reappear in the feed on deploy instead of after a day.
+ */
+@Slf4j
+@Service
+public class TaskFeedService {
+
+    private final ProjectRepository projectRepository;
+    private final TaskAssignmentRepository taskAssignmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public TaskFeedService(
+            ProjectRepository projectRepository,
+            TaskAssignmentRepository taskAssignmentRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.task-feed.resync-batch-size:500}") int batchSize
+    ) {
+        this.projectRepository = projectRepository;
+        this.taskAssignmentRepository = taskAssignmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Copies the current task state onto every assignment.
+     *
+     * @return number of projects resynced
+     */
+    @Scheduled(
+            initialDelayString = "${app.task-feed.resync-initial-delay:0}",
+            fixedDelayString = "${app.task-feed.resync-interval:86400}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public long resync() {
+        long resynced = 0;
+        Long afterId = 0L;
+
+        try {
+            while (true) {
+                // 1. Next batch of project ids (primary key range)
+                List<Long> ids = projectRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                // 2. One update per batch, in a short transaction of its own
+                transactionTemplate.executeWithoutResult(status -> taskAssignmentRepository.syncTaskStateOfProjects(ids));
+                resynced += ids.size();
+                afterId = ids.get(ids.size() - 1);
+
+                if (ids.size() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Task feed resync stopped after {} projects", resynced, ex);
+        }
+
+        log.info("Task feed resynced for {} projects", resynced);
+        return resynced;
+    }
+}
@@ -0,0 +1,267 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.BulkTaskOutcome;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.ProjectStatusFilter;
+import org.magicalpanda.projectmanagementbackend.dto.request.BulkUpdateTasksRequest;
+import org.magicalpanda.projectmanagementbackend.dto.request.TaskFilter;
+import org.magicalpanda.projectmanagementbackend.dto.response.AssignedTaskResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.BulkTaskResultResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.CursorPageResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.TaskAssigneeResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.TaskResponse;
+import org.magicalpanda.projectmanagementbackend.event.TaskChangedEvent;
+import org.magicalpanda.projectmanagementbackend.event.TasksChangedEvent;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+import org.magicalpanda.projectmanagementbackend.policy.ProjectPolicy;
+import org.magicalpanda.projectmanagementbackend.repository.TaskAssignmentRepository;
+import org.magicalpanda.projectmanagementbackend.repository.TaskRepository;
+import org.magicalpanda.projectmanagementbackend.repository.projection.TaskAssigneeRow;
+import org.magicalpanda.projectmanagementbackend.repository.projection.TaskBoardRow;
+import org.magicalpanda.projectmanagementbackend.repository.projection.TaskStateRow;
+import org.magicalpanda.projectmanagementbackend.util.CursorCodec;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class TaskService {
+
+    private final TaskRepository taskRepository;
+    private final TaskAssignmentRepository taskAssignmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Earlier than any stored due date, so the first feed page starts at the soonest task
+    private static final Instant FEED_START = Instant.parse("1000-01-01T00:00:00Z");
+
+    // Cursor position within the tasks without a due date
+    private static final String NO_DUE_DATE = "none";
+
+    /**
+     * Keyset pagination over a project's task board, column by column (TODO, IN_PROGRESS,
+     * COMPLETED) and by id within a column. Each column is one index range, so a page costs
+     * the same at any depth; a page crossing columns runs one query per column, plus one
+     * query for the assignees of the page. Project.tasks is never loaded.
+     *
+     * @param cursor nextCursor of the previous page, null or blank for the first page
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("@projectPolicy.canViewProject(#projectId, #userId)")
+    public CursorPageResponse<TaskResponse> getTasks(
+            Long projectId,
+            Long userId,
+            TaskFilter filter,
+            String cursor,
+            int size
+    ) {
+        if (size < 1 || size > ProjectService.MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + ProjectService.MAX_CURSOR_PAGE_SIZE);
+        }
+
+        List<TaskStatus> columns = (filter.statuses() == null || filter.statuses().isEmpty())
+                ? List.of(TaskStatus.values())
+                : filter.statuses().stream().distinct().sorted().toList();
+        List<TaskPriority> priorities = (filter.priorities() == null || filter.priorities().isEmpty())
+                ? List.of(TaskPriority.values())
+                : filter.priorities();
+
+        // 1. Position: after the cursor's (status, id), or the start of the first column
+        int column = 0;
+        Long afterId = 0L;
+
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = CursorCodec.decode(cursor, 2);
+            try {
+                column = columns.indexOf(TaskStatus.valueOf(position[0]));
+                afterId = Long.valueOf(position[1]);
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid cursor", ex);
+            }
+            if (column < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // 2. Fill the page (plus one row to know whether there is a next page) column by column
+        List<TaskBoardRow> rows = new ArrayList<>(size + 1);
+        for (; column < columns.size() && rows.size() <= size; column++, afterId = 0L) {
+            PageRequest limit = PageRequest.of(0, size + 1 - rows.size());
+
+            rows.addAll(filter.assigneeId() == null
+                    ? taskRepository.findBoardTasksAfter(
+                            projectId, columns.get(column), priorities, filter.dueFrom(), filter.dueTo(), afterId, limit)
+                    : taskRepository.findAssignedBoardTasksAfter(
+                            projectId, filter.assigneeId(), columns.get(column), priorities,
+                            filter.dueFrom(), filter.dueTo(), afterId, limit));
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<TaskBoardRow> page = hasNext ? rows.subList(0, size) : rows;
+
+        // 3. Assignees of the whole page in one query
+        Map<Long, List<TaskAssigneeResponse>> assignees = new HashMap<>();
+        if (!page.isEmpty()) {
+            for (TaskAssigneeRow row : taskAssignmentRepository.findAssignees(page.stream().map(TaskBoardRow::id).toList())) {
+                assignees.computeIfAbsent(row.taskId(), id -> new ArrayList<>())
+                        .add(TaskAssigneeResponse.builder().userId(row.userId()).username(row.username()).build());
+            }
+        }
+
+        // 4. Next cursor = (status, id) of the last returned row
+        String nextCursor = null;
+        if (hasNext) {
+            TaskBoardRow last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(last.status().name(), last.id().toString());
+        }
+
+        return CursorPageResponse.<TaskResponse>builder()
+                .content(page.stream().map(row -> row.toResponse(assignees.getOrDefault(row.id(), List.of()))).toList())
+                .size(page.size())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Keyset pagination over the user's open tasks across projects: soonest due date first,
+     * tasks without a due date last, by id within the same due date. Reads the user's
+     * idx_task_assignments_feed range in index order, so the cost does not grow with the
+     * user's completed history.
+     *
+     * @param status project statuses to include, resolved by ProjectPolicy.resolveVisibleStatuses
+     * @param cursor nextCursor of the previous page, null or blank for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AssignedTaskResponse> getMyTasks(
+            Long userId,
+            List<ProjectStatusFilter> status,
+            String cursor,
+            int size
+    ) {
+        if (size < 1 || size > ProjectService.MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + ProjectService.MAX_CURSOR_PAGE_SIZE);
+        }
+
+        List<ProjectStatus> projectStatuses = ProjectPolicy.resolveVisibleStatuses(status);
+
+        // 1. Position: after the cursor's (due date, id), or the start of the dated tasks
+        Instant afterDueDate = FEED_START;
+        Long afterId = 0L;
+
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = CursorCodec.decode(cursor, 2);
+            try {
+                afterDueDate = position[0].equals(NO_DUE_DATE) ? null : Instant.parse(position[0]);
+                afterId = Long.valueOf(position[1]);
+            } catch (RuntimeException ex) {
+                throw new IllegalArgumentException("Invalid cursor", ex);
+            }
+        }
+
+        // 2. Dated tasks first, then the undated ones (plus one row to know whether there is a next page)
+        List<AssignedTaskResponse> rows = new ArrayList<>(size + 1);
+        if (afterDueDate != null) {
+            rows.addAll(taskAssignmentRepository.findOpenDatedAfter(
+                    userId, projectStatuses, afterDueDate, afterId, PageRequest.of(0, size + 1)));
+            afterId = 0L;
+        }
+        if (rows.size() <= size) {
+            rows.addAll(taskAssignmentRepository.findOpenUndatedAfter(
+                    userId, projectStatuses, afterId, PageRequest.of(0, size + 1 - rows.size())));
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<AssignedTaskResponse> page = hasNext ? rows.subList(0, size) : rows;
+
+        // 3. Next cursor = (due date, id) of the last returned row
+        String nextCursor = null;
+        if (hasNext) {
+            AssignedTaskResponse last = page.get(page.size() - 1);
+            nextCursor = CursorCodec.encode(
+                    last.getDueDate() == null ? NO_DUE_DATE : last.getDueDate().toString(),
+                    last.getId().toString()
+            );
+        }
+
+        return CursorPageResponse.<AssignedTaskResponse>builder()
+                .content(page)
+                .size(page.size())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Applies the same status, priority and/or due date to many tasks of a project: one
+     * authorization check, one locking read of the current values and one set-based update,
+     * whatever the number of tasks. Reported per task; ids outside the project are NOT_FOUND.
+     */
+    @PreAuthorize("@projectPolicy.canUpdateTasks(#projectId, #userId)")
+    public List<BulkTaskResultResponse> updateTasks(Long projectId, Long userId, BulkUpdateTasksRequest request) {
+
+        if (request.getStatus() == null && request.getPriority() == null && request.getDueDate() == null) {
+            throw new IllegalArgumentException("Nothing to update: status, priority or dueDate is required");
+        }
+
+        // 1. Distinct ids, in request order
+        Set<Long> requested = new LinkedHashSet<>(request.getTaskIds());
+
+        // 2. Current values, locked so the events match what the update replaces
+        Map<Long, TaskStateRow> current = new HashMap<>();
+        for (TaskStateRow row : taskRepository.findStatesForUpdate(projectId, requested)) {
+            current.put(row.id(), row);
+        }
+
+        // 3. Outcome per task
+        List<BulkTaskResultResponse> results = new ArrayList<>(requested.size());
+        List<Long> changed = new ArrayList<>();
+        List<TaskChangedEvent> changes = new ArrayList<>();
+
+        for (Long taskId : requested) {
+            TaskStateRow row = current.get(taskId);
+            BulkTaskOutcome outcome;
+
+            if (row == null) {
+                outcome = BulkTaskOutcome.NOT_FOUND;
+            } else {
+                TaskStatus status = request.getStatus() != null ? request.getStatus() : row.status();
+                TaskPriority priority = request.getPriority() != null ? request.getPriority() : row.priority();
+                Instant dueDate = request.getDueDate() != null ? request.getDueDate() : row.dueDate();
+
+                if (status == row.status() && priority == row.priority() && Objects.equals(dueDate, row.dueDate())) {
+                    outcome = BulkTaskOutcome.UNCHANGED;
+                } else {
+                    changed.add(taskId);
+                    changes.add(new TaskChangedEvent(projectId, row.status(), row.priority(), status, priority));
+                    outcome = BulkTaskOutcome.UPDATED;
+                }
+            }
+
+            results.add(BulkTaskResultResponse.builder().taskId(taskId).outcome(outcome).build());
+        }
+
+        // 4. One update for all changed tasks (and their feed copies), one event for all changes
+        if (!changed.isEmpty()) {
+            taskRepository.updateAll(projectId, changed, request.getStatus(), request.getPriority(), request.getDueDate());
+            if (request.getStatus() != null || request.getDueDate() != null) {
+                taskAssignmentRepository.syncTaskState(changed);
+            }
+            eventPublisher.publishEvent(new TasksChangedEvent(changes));
+        }
+
+        return results;
+    }
+}
@@ -1,27 +1,113 @@
 package org.magicalpanda.projectmanagementbackend.service;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.magicalpanda.projectmanagementbackend.util.RotatingBloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Redis-backed access token blacklist with a node-local Bloom filter in front of it.
+ *
+ * Every blacklisted JTI is also put into a local filter on every node (directly on the
+ * node that blacklisted it, through Redis pub/sub on the others), so Redis is only asked
+ * when the filter reports a probable hit.
+ *
+ * The filter is rebuilt from the "blacklist:*" keys at startup and after every rotation,
+ * which also repairs anything missed while the subscription was down. Until that resync
+ * has succeeded, every lookup goes to Redis.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
-public class TokenBlacklistService {
+public class TokenBlacklistService implements MessageListener {
+
+    public static final String CHANNEL = "blacklist-events";
 
     private static final String  PREFIX = "blacklist:";
 
     private final StringRedisTemplate redisTemplate;
+    private final RotatingBloomFilter filter;
+
+    private volatile boolean filterReady = false;
+
+    public TokenBlacklistService(
+            StringRedisTemplate redisTemplate,
+            @Value("${spring.security.jwt.access-token-expiration}") long accessTokenExpirationSeconds,
+            @Value("${spring.security.jwt.blacklist-filter.rotation-interval:300}") long rotationIntervalSeconds,
+            @Value("${spring.security.jwt.blacklist-filter.expected-insertions:100000}") long expectedInsertions,
+            @Value("${spring.security.jwt.blacklist-filter.false-positive-rate:0.001}") double falsePositiveRate
+    ) {
+        this.redisTemplate = redisTemplate;
+
+        // Enough buckets for an entry to survive a full access token lifetime
+        int bucketCount = (int) Math.ceil((double) accessTokenExpirationSeconds / rotationIntervalSeconds) + 1;
+        this.filter = new RotatingBloomFilter(expectedInsertions, falsePositiveRate, bucketCount);
+    }
 
     public void blacklist(String jti, Duration ttl) {
         redisTemplate.opsForValue()
                 .set(PREFIX + jti, "1", ttl);
+
+        filter.put(jti);
+        redisTemplate.convertAndSend(CHANNEL, jti);
     }
 
     public boolean isBlacklisted(String jti) {
+        // Definitely not blacklisted -> no Redis round trip
+        if (filterReady && !filter.mightContain(jti)) {
+            return false;
+        }
+
         return Boolean.TRUE.equals(
                 redisTemplate.hasKey(PREFIX + jti)
         );
     }
+
+    // Blacklist events published by other nodes
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        filter.put(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        resync();
+    }
+
+    @Scheduled(
+            initialDelayString = "${spring.security.jwt.blacklist-filter.rotation-interval:300}",
+            fixedDelayString = "${spring.security.jwt.blacklist-filter.rotation-interval:300}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public void rotate() {
+        filter.rotate();
+        resync();
+    }
+
+    private void resync() {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(PREFIX + "*")
+                .count(1000)
+                .build();
+
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            keys.forEachRemaining(key -> filter.put(key.substring(PREFIX.length())));
+            filterReady = true;
+        } catch (RuntimeException ex) {
+            // Fall back to asking Redis on every lookup until the next successful resync
+            filterReady = false;
+            log.warn("Could not resync blacklist filter from Redis", ex);
+        }
+    }
 }
@@ -0,0 +1,156 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.magicalpanda.projectmanagementbackend.util.LongLongHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-user "revoked-before" epochs: every access token of a user issued before the
+ * epoch is rejected, so a single write cuts off all of that user's sessions.
+ *
+ * Epochs live in Redis ("revoked-before:{userId}", in epoch seconds) for one access token
+ * lifetime, since older tokens have expired anyway. Each node mirrors them in a local
+ * primitive map kept up to date through pub/sub and a periodic resync, so the
+ * per-request check is a local lookup. Until the first resync succeeds, Redis is asked.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService implements MessageListener {
+
+    public static final String CHANNEL = "revocation-events";
+
+    private static final String PREFIX = "revoked-before:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration accessTokenTtl;
+
+    private final LongLongHashMap revokedBefore = new LongLongHashMap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean localReady = false;
+
+    public TokenRevocationService(
+            StringRedisTemplate redisTemplate,
+            @Value("${spring.security.jwt.access-token-expiration}") long accessTokenExpirationSeconds
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.accessTokenTtl = Duration.ofSeconds(accessTokenExpirationSeconds);
+    }
+
+    /**
+     * Revokes every access token of the user issued up to now.
+     *
+     * Token "iat" claims have second precision, so tokens issued later within the same
+     * second are rejected as well; clients simply log in again.
+     */
+    public void revokeAllTokens(Long userId) {
+        long epoch = Instant.now().getEpochSecond() + 1;
+
+        redisTemplate.opsForValue()
+                .set(PREFIX + userId, Long.toString(epoch), accessTokenTtl);
+
+        record(userId, epoch);
+        redisTemplate.convertAndSend(CHANNEL, userId + ":" + epoch);
+    }
+
+    public boolean isRevoked(Long userId, Instant issuedAt) {
+        long epoch;
+
+        if (localReady) {
+            lock.readLock().lock();
+            try {
+                epoch = revokedBefore.get(userId, Long.MIN_VALUE);
+            } finally {
+                lock.readLock().unlock();
+            }
+        } else {
+            String value = redisTemplate.opsForValue().get(PREFIX + userId);
+            epoch = (value != null) ? Long.parseLong(value) : Long.MIN_VALUE;
+        }
+
+        return issuedAt.getEpochSecond() < epoch;
+    }
+
+    // Revocations published by other nodes ("{userId}:{epoch}")
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+
+        record(
+                Long.parseLong(body.substring(0, separator)),
+                Long.parseLong(body.substring(separator + 1))
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        resync();
+    }
+
+    @Scheduled(
+            initialDelayString = "${spring.security.jwt.revocation.resync-interval:300}",
+            fixedDelayString = "${spring.security.jwt.revocation.resync-interval:300}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    public void resync() {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(PREFIX + "*")
+                .count(1000)
+                .build();
+
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            keys.forEachRemaining(key -> {
+                String value = redisTemplate.opsForValue().get(key);
+                if (value != null) {
+                    record(Long.parseLong(key.substring(PREFIX.length())), Long.parseLong(value));
+                }
+            });
+            localReady = true;
+        } catch (RuntimeException ex) {
+            localReady = false;
+            log.warn("Could not resync token revocation epochs from Redis", ex);
+        }
+
+        prune();
+    }
+
+    private void record(long userId, long epoch) {
+        lock.writeLock().lock();
+        try {
+            if (epoch > revokedBefore.get(userId, Long.MIN_VALUE)) {
+                revokedBefore.put(userId, epoch);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Epochs older than one access token lifetime can no longer reject anything
+    private void prune() {
+        long threshold = Instant.now().minus(accessTokenTtl).getEpochSecond();
+
+        lock.writeLock().lock();
+        try {
+            revokedBefore.removeIf((userId, epoch) -> epoch < threshold);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.magicalpanda.projectmanagementbackend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset pagination positions (the sort key values of the last row of a page)
+ * as opaque, URL-safe cursor strings.
+ *
+ * Cursors are not signed: a tampered cursor only moves the caller's own position, since
+ * every cursor query still applies the caller's filters.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {}
+
+    public static String encode(String... parts) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(String.join(SEPARATOR, parts).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed or has a different number of parts
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", -1);
+
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
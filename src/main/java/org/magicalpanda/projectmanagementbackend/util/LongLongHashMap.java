@@ -0,0 +1,158 @@
+package org.magicalpanda.projectmanagementbackend.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive long keys to primitive long values.
+ *
+ * Avoids boxing a Long key and value (plus a map entry) per mapping, which matters for
+ * maps that are read on every request. Not thread-safe; callers guard it themselves.
+ */
+public final class LongLongHashMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    public LongLongHashMap() {
+        this(16);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(long key) {
+        return used[indexOf(key)];
+    }
+
+    public long get(long key, long defaultValue) {
+        int index = indexOf(key);
+        return used[index] ? values[index] : defaultValue;
+    }
+
+    public void put(long key, long value) {
+        int index = indexOf(key);
+
+        if (!used[index]) {
+            used[index] = true;
+            keys[index] = key;
+            size++;
+        }
+        values[index] = value;
+
+        if (size > keys.length * LOAD_FACTOR) {
+            resize(keys.length << 1);
+        }
+    }
+
+    public void remove(long key) {
+        int index = indexOf(key);
+        if (used[index]) {
+            removeAt(index);
+        }
+    }
+
+    public void removeIf(EntryPredicate predicate) {
+        int index = 0;
+        while (index < keys.length) {
+            // removeAt may shift a later entry into this slot, so re-check it before moving on
+            if (used[index] && predicate.test(keys[index], values[index])) {
+                removeAt(index);
+            } else {
+                index++;
+            }
+        }
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    // Slot holding the key, or the empty slot where it would be inserted
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int index = mix(key) & mask;
+
+        while (used[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    // Backward-shift deletion keeps linear probing chains intact without tombstones
+    private void removeAt(int index) {
+        int mask = keys.length - 1;
+        int gap = index;
+        int next = (gap + 1) & mask;
+
+        while (used[next]) {
+            int home = mix(keys[next]) & mask;
+            boolean movable = (gap <= next)
+                    ? (home <= gap || home > next)
+                    : (home <= gap && home > next);
+
+            if (movable) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        used[gap] = false;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        size = 0;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface EntryPredicate {
+        boolean test(long key, long value);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,52 @@
+package org.magicalpanda.projectmanagementbackend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Validators of a representation for conditional GET: a strong ETag plus Last-Modified.
+ *
+ * The ETag is a digest of everything the representation depends on (change timestamps, row
+ * counts, the caller's identity), so it can be computed without building the body.
+ */
+public record ResourceVersion(String etag, Instant lastModified) {
+
+    public ResourceVersion {
+        Objects.requireNonNull(etag);
+        Objects.requireNonNull(lastModified);
+    }
+
+    /**
+     * @param parts values that change whenever the representation changes; nulls are allowed
+     */
+    public static ResourceVersion of(Object... parts) {
+        String joined = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+
+        Instant lastModified = Arrays.stream(parts)
+                .filter(Instant.class::isInstance)
+                .map(Instant.class::cast)
+                .max(Instant::compareTo)
+                .orElse(Instant.EPOCH);
+
+        return new ResourceVersion("\"" + digest(joined) + "\"", lastModified);
+    }
+
+    private static String digest(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8));
+            // 128 bits are plenty to tell versions of one resource apart
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.magicalpanda.projectmanagementbackend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter split into time buckets.
+ *
+ * New values always go into the newest bucket, lookups check every bucket, and
+ * rotate() drops the oldest bucket. A value therefore stays visible for at least
+ * (buckets - 1) rotations, which lets entries age out without ever removing them.
+ *
+ * Like any Bloom filter it may return false positives but never false negatives.
+ */
+public final class RotatingBloomFilter {
+
+    private final int numBits;
+    private final int numHashes;
+
+    // index 0 is the newest bucket; the array is replaced as a whole on rotation
+    private volatile AtomicLongArray[] buckets;
+
+    /**
+     * @param expectedInsertionsPerBucket values expected between two rotations
+     * @param falsePositiveRate           target false positive rate per bucket
+     * @param bucketCount                 number of buckets kept (at least 2)
+     */
+    public RotatingBloomFilter(long expectedInsertionsPerBucket, double falsePositiveRate, int bucketCount) {
+        if (expectedInsertionsPerBucket <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1 || bucketCount < 2) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing");
+        }
+
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedInsertionsPerBucket * Math.log(falsePositiveRate) / (ln2 * ln2));
+
+        this.numBits = (int) Math.min(Math.max(bits, 64), Integer.MAX_VALUE - 63);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertionsPerBucket * ln2));
+
+        AtomicLongArray[] initial = new AtomicLongArray[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            initial[i] = newBucket();
+        }
+        this.buckets = initial;
+    }
+
+    public void put(String value) {
+        AtomicLongArray bucket = buckets[0];
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = bitIndex(h1 + i * h2);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+
+            long current;
+            do {
+                current = bucket.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bucket.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        for (AtomicLongArray bucket : buckets) {
+            if (contains(bucket, h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the oldest bucket and starts a new, empty one.
+     */
+    public synchronized void rotate() {
+        AtomicLongArray[] current = buckets;
+        AtomicLongArray[] rotated = new AtomicLongArray[current.length];
+
+        rotated[0] = newBucket();
+        System.arraycopy(current, 0, rotated, 1, current.length - 1);
+
+        buckets = rotated;
+    }
+
+    private boolean contains(AtomicLongArray bucket, int h1, int h2) {
+        for (int i = 1; i <= numHashes; i++) {
+            int bit = bitIndex(h1 + i * h2);
+            if ((bucket.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private AtomicLongArray newBucket() {
+        return new AtomicLongArray((numBits + 63) >>> 6);
+    }
+
+    private int bitIndex(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % numBits;
+    }
+
+    /**
+     * 64-bit FNV-1a followed by a murmur3 finalizer, split into two 32-bit halves
+     * for double hashing.
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,54 @@
+package org.magicalpanda.projectmanagementbackend.model.id;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.Role;
+import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs in a context of its own (worker 3), so the users generator has not issued an id yet,
+ * like after a restart.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties." + TimeOrderedIdGenerator.WORKER_ID_SETTING + "=3"
+})
+class TimeOrderedIdGeneratorTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void firstIdContinuesAfterIdsIssuedAheadOfTheClock() {
+        // Issued by this worker before a restart, one minute ahead of the current clock
+        long aheadMillis = System.currentTimeMillis() - TimeOrderedIdGenerator.EPOCH_MILLIS + 60_000;
+        long issuedId = aheadMillis << (TimeOrderedIdGenerator.SEQUENCE_BITS + TimeOrderedIdGenerator.WORKER_BITS)
+                | 3L << TimeOrderedIdGenerator.SEQUENCE_BITS
+                | 5;
+        entityManager.createNativeQuery("""
+                        insert into users (id, email, username, role, is_email_verified, created_at)
+                        values (?, 'issued@example.com', 'issued', 'USER', false, ?)
+                        """)
+                .setParameter(1, issuedId)
+                .setParameter(2, Instant.now())
+                .executeUpdate();
+
+        User user = userRepository.save(User.builder()
+                .username("next")
+                .email("next@example.com")
+                .role(Role.USER)
+                .build());
+
+        assertThat(user.getId()).isGreaterThan(issuedId);
+    }
+}
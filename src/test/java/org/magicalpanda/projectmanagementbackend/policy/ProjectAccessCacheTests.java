@@ -0,0 +1,170 @@
+package org.magicalpanda.projectmanagementbackend.policy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.magicalpanda.projectmanagementbackend.model.Membership;
+import org.magicalpanda.projectmanagementbackend.model.Project;
+import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.Role;
+import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
+import org.magicalpanda.projectmanagementbackend.repository.ProjectRepository;
+import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.magicalpanda.projectmanagementbackend.support.StatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ProjectAccessCache.class, ProjectAccessCacheTests.Config.class})
+class ProjectAccessCacheTests {
+
+    private static final List<ProjectRole> MANAGERS = List.of(ProjectRole.OWNER, ProjectRole.MANAGER);
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ProjectAccessCache projectAccessCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MembershipRepository membershipRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @SuppressWarnings("unchecked")
+    private final HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+
+    private StatementCounter statementCounter;
+
+    private User user;
+    private Project managed;
+    private Project joined;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        statementCounter = new StatementCounter(entityManagerFactory, entityManager);
+
+        user = userRepository.save(User.builder()
+                .username("alice")
+                .email("alice@example.com")
+                .role(Role.USER)
+                .build());
+
+        managed = saveProject("Managed");
+        joined = saveProject("Joined");
+        saveMembership(managed, ProjectRole.MANAGER, MembershipStatus.ACTIVE);
+        saveMembership(joined, ProjectRole.MEMBER, MembershipStatus.PENDING);
+    }
+
+    @Test
+    void missLoadsAllRolesOnceThenAnswersFromMemory() {
+        statementCounter.start();
+
+        assertThat(projectAccessCache.hasActiveRole(managed.getId(), user.getId(), MANAGERS)).isTrue();
+        assertThat(projectAccessCache.hasActiveRole(joined.getId(), user.getId(), List.of(ProjectRole.values()))).isFalse();
+        assertThat(projectAccessCache.hasActiveRole(-1L, user.getId(), MANAGERS)).isFalse();
+
+        assertThat(statementCounter.stop()).isEqualTo(1);
+        verify(hashOperations, times(1)).entries("project-access:" + user.getId());
+    }
+
+    @Test
+    void redisSnapshotIsUsedWithoutTheDatabase() {
+        when(hashOperations.entries("project-access:" + user.getId())).thenReturn(Map.of(
+                "loaded", "1",
+                joined.getId().toString(), "OWNER:ACTIVE"
+        ));
+
+        statementCounter.start();
+
+        assertThat(projectAccessCache.hasActiveRole(joined.getId(), user.getId(), MANAGERS)).isTrue();
+        assertThat(projectAccessCache.hasActiveRole(managed.getId(), user.getId(), MANAGERS)).isFalse();
+
+        assertThat(statementCounter.stop()).isZero();
+    }
+
+    @Test
+    void evictionReloadsAndNotifiesOtherNodes() {
+        projectAccessCache.hasActiveRole(managed.getId(), user.getId(), MANAGERS);
+
+        membershipRepository.findByProjectIdAndUserId(managed.getId(), user.getId())
+                .orElseThrow()
+                .setStatus(MembershipStatus.LEFT);
+        statementCounter.start();
+
+        projectAccessCache.evict(user.getId());
+
+        assertThat(projectAccessCache.hasActiveRole(managed.getId(), user.getId(), MANAGERS)).isFalse();
+        assertThat(statementCounter.stop()).isEqualTo(1);
+        verify(redisTemplate).convertAndSend(ProjectAccessCache.CHANNEL, user.getId().toString());
+    }
+
+    private Project saveProject(String name) {
+        return projectRepository.save(Project.builder()
+                .name(name)
+                .owner(user)
+                .status(ProjectStatus.IN_PROGRESS)
+                .build());
+    }
+
+    private void saveMembership(Project project, ProjectRole role, MembershipStatus status) {
+        membershipRepository.save(Membership.builder()
+                .user(user)
+                .project(project)
+                .role(role)
+                .status(status)
+                .JoinedAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,172 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.magicalpanda.projectmanagementbackend.dto.request.LoginRequest;
+import org.magicalpanda.projectmanagementbackend.dto.request.LogoutRequest;
+import org.magicalpanda.projectmanagementbackend.dto.request.RefreshTokenRequest;
+import org.magicalpanda.projectmanagementbackend.dto.request.RegisterRequest;
+import org.magicalpanda.projectmanagementbackend.dto.response.LoginResponse;
+import org.magicalpanda.projectmanagementbackend.proxy.EmailProxy;
+import org.magicalpanda.projectmanagementbackend.security.auth.LocalAuthenticationProvider;
+import org.magicalpanda.projectmanagementbackend.security.jwt.JpaRefreshTokenStore;
+import org.magicalpanda.projectmanagementbackend.security.jwt.JwtService;
+import org.magicalpanda.projectmanagementbackend.support.StatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pins the number of SQL statements issued by the login, refresh and logout paths,
+ * so an extra lazy load or flush fails the build.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.security.jwt.secret=HLHAXNxhlvRBTY8+G6YQdA0K0xn2aj4A6FAkS1SGEzc=",
+        "spring.security.jwt.access-token-expiration=900",
+        "spring.security.jwt.refresh-token-expiration=604800"
+})
+@Import({
+        AuthService.class,
+        JwtService.class,
+        JpaRefreshTokenStore.class,
+        LocalAuthenticationProvider.class,
+        AuthQueryCountTests.Config.class
+})
+class AuthQueryCountTests {
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+
+        @Bean
+        AuthenticationManager authenticationManager(LocalAuthenticationProvider localAuthenticationProvider) {
+            return new ProviderManager(localAuthenticationProvider);
+        }
+    }
+
+    @MockitoBean
+    private TokenBlacklistService tokenBlacklistService;
+
+    @MockitoBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockitoBean
+    private EmailProxy emailProxy;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new StatementCounter(entityManagerFactory, entityManager);
+
+        authService.register(registerRequest("alice", "alice@example.com", "password123"));
+
+        // Warm up so later counts do not include one-off statements
+        login("alice", "password123");
+    }
+
+    @Test
+    void loginIssuesOneSelectAndOneInsert() {
+        statementCounter.start();
+
+        login("alice", "password123");
+
+        // identity + user fetch join, refresh token insert
+        assertThat(statementCounter.stop()).isEqualTo(2);
+    }
+
+    @Test
+    void refreshIssuesOneSelectOneUpdateAndOneInsert() {
+        LoginResponse tokens = login("alice", "password123");
+
+        statementCounter.start();
+
+        authService.refresh(refreshRequest(tokens.getRefreshToken()));
+
+        // conditional revoke of the old token, user select, insert new token
+        assertThat(statementCounter.stop()).isEqualTo(3);
+    }
+
+    @Test
+    void reusingRotatedRefreshTokenRevokesItsFamily() {
+        LoginResponse tokens = login("alice", "password123");
+
+        LoginResponse rotated = authService.refresh(refreshRequest(tokens.getRefreshToken()));
+
+        // The rotated token is presented again (e.g. stolen copy)
+        assertThatThrownBy(() -> authService.refresh(refreshRequest(tokens.getRefreshToken())))
+                .isInstanceOf(JwtException.class)
+                .hasMessage("Refresh token reuse detected");
+
+        // The legitimate successor is revoked with the rest of the family
+        assertThatThrownBy(() -> authService.refresh(refreshRequest(rotated.getRefreshToken())))
+                .isInstanceOf(JwtException.class)
+                .hasMessage("Refresh token reuse detected");
+    }
+
+    @Test
+    void logoutIssuesOneUpdate() {
+        LoginResponse tokens = login("alice", "password123");
+
+        statementCounter.start();
+
+        LogoutRequest request = new LogoutRequest();
+        ReflectionTestUtils.setField(request, "refreshToken", tokens.getRefreshToken());
+        authService.logout(request, "Bearer " + tokens.getAccessToken());
+
+        // conditional revoke of the refresh token
+        assertThat(statementCounter.stop()).isEqualTo(1);
+    }
+
+    private LoginResponse login(String username, String password) {
+        LoginRequest request = new LoginRequest();
+        ReflectionTestUtils.setField(request, "username", username);
+        ReflectionTestUtils.setField(request, "password", password);
+        return authService.login(request);
+    }
+
+    private static RefreshTokenRequest refreshRequest(String refreshToken) {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        ReflectionTestUtils.setField(request, "refreshToken", refreshToken);
+        return request;
+    }
+
+    private static RegisterRequest registerRequest(String username, String email, String password) {
+        RegisterRequest request = new RegisterRequest();
+        ReflectionTestUtils.setField(request, "username", username);
+        ReflectionTestUtils.setField(request, "email", email);
+        ReflectionTestUtils.setField(request, "password", password);
+        ReflectionTestUtils.setField(request, "firstName", "Alice");
+        ReflectionTestUtils.setField(request, "lastName", "Example");
+        return request;
+    }
+}
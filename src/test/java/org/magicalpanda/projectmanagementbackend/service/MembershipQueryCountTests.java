@@ -0,0 +1,298 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.InviteOutcome;
+import org.magicalpanda.projectmanagementbackend.dto.request.UpdateMembershipRequest;
+import org.magicalpanda.projectmanagementbackend.dto.response.CursorPageResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.InviteResultResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.ProjectDetailsResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.ProjectMemberResponse;
+import org.magicalpanda.projectmanagementbackend.model.Membership;
+import org.magicalpanda.projectmanagementbackend.model.Project;
+import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.Role;
+import org.magicalpanda.projectmanagementbackend.policy.MembershipContext;
+import org.magicalpanda.projectmanagementbackend.policy.MembershipPolicy;
+import org.magicalpanda.projectmanagementbackend.policy.ProjectAccessCache;
+import org.magicalpanda.projectmanagementbackend.policy.ProjectPolicy;
+import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
+import org.magicalpanda.projectmanagementbackend.repository.ProjectRepository;
+import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.magicalpanda.projectmanagementbackend.support.StatementCounter;
+import org.magicalpanda.projectmanagementbackend.util.ResourceVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.CustomScopeConfigurer;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.RequestScope;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pins the statements of the membership-guarded endpoints, @PreAuthorize policy included, so
+ * a policy and its service loading the same membership twice fails the build.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({
+        MembershipService.class,
+        ProjectService.class,
+        MembershipPolicy.class,
+        ProjectPolicy.class,
+        MembershipContext.class,
+        MembershipQueryCountTests.Config.class
+})
+class MembershipQueryCountTests {
+
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class Config {
+
+        @Bean
+        static CustomScopeConfigurer requestScope() {
+            CustomScopeConfigurer configurer = new CustomScopeConfigurer();
+            configurer.addScope(WebApplicationContext.SCOPE_REQUEST, new RequestScope());
+            return configurer;
+        }
+    }
+
+    // Role checks are served from the cache; see ProjectAccessCacheTests
+    @MockitoBean
+    private ProjectAccessCache projectAccessCache;
+
+    @Autowired
+    private MembershipService membershipService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MembershipRepository membershipRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private StatementCounter statementCounter;
+
+    private User owner;
+    private Project project;
+    private Membership memberMembership;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "owner", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        statementCounter = new StatementCounter(entityManagerFactory, entityManager);
+
+        owner = saveUser("owner");
+        User member = saveUser("member");
+
+        project = projectRepository.save(Project.builder()
+                .name("Project")
+                .owner(owner)
+                .status(ProjectStatus.IN_PROGRESS)
+                .build());
+
+        saveMembership(owner, ProjectRole.OWNER);
+        memberMembership = saveMembership(member, ProjectRole.MEMBER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void updateMembershipLoadsEachMembershipOnce() {
+        UpdateMembershipRequest request = new UpdateMembershipRequest();
+        ReflectionTestUtils.setField(request, "role", ProjectRole.MANAGER);
+
+        statementCounter.start();
+
+        membershipService.updateMembership(memberMembership.getId(), owner.getId(), request);
+
+        // target membership + actor membership (shared by policy and service) + update
+        assertThat(statementCounter.stop()).isEqualTo(3);
+        assertThat(membershipRepository.findById(memberMembership.getId()))
+                .get()
+                .extracting(Membership::getRole)
+                .isEqualTo(ProjectRole.MANAGER);
+    }
+
+    @Test
+    void batchInviteIsOneQueryPerKindAndBatchedWrites() {
+        when(projectAccessCache.hasActiveRole(eq(project.getId()), eq(owner.getId()), any())).thenReturn(true);
+
+        List<Long> newUsers = List.of(saveUser("new1").getId(), saveUser("new2").getId(), saveUser("new3").getId());
+        User leaver = saveUser("leaver");
+        saveMembership(leaver, ProjectRole.MEMBER).setStatus(MembershipStatus.LEFT);
+
+        List<Long> userIds = new ArrayList<>(newUsers);
+        userIds.add(leaver.getId());
+        userIds.add(memberMembership.getUser().getId());
+        userIds.add(-1L);
+        userIds.add(newUsers.get(0)); // duplicate
+
+        statementCounter.start();
+
+        List<InviteResultResponse> results = membershipService.createMemberships(project.getId(), owner.getId(), userIds);
+
+        // existing memberships + existing users + one insert batch + one update batch
+        assertThat(statementCounter.stop()).isEqualTo(4);
+        assertThat(results)
+                .extracting(InviteResultResponse::getUserId, InviteResultResponse::getOutcome, InviteResultResponse::getStatus)
+                .containsExactly(
+                        tuple(newUsers.get(0), InviteOutcome.INVITED, MembershipStatus.PENDING),
+                        tuple(newUsers.get(1), InviteOutcome.INVITED, MembershipStatus.PENDING),
+                        tuple(newUsers.get(2), InviteOutcome.INVITED, MembershipStatus.PENDING),
+                        tuple(leaver.getId(), InviteOutcome.REINVITED, MembershipStatus.PENDING),
+                        tuple(memberMembership.getUser().getId(), InviteOutcome.ALREADY_MEMBER, MembershipStatus.ACTIVE),
+                        tuple(-1L, InviteOutcome.USER_NOT_FOUND, null)
+                );
+
+        // Every reported membership id is the stored membership of that user
+        Map<Long, Long> membershipIds = membershipRepository.findByProjectIdAndUserIdIn(project.getId(), userIds).stream()
+                .collect(Collectors.toMap(membership -> membership.getUser().getId(), Membership::getId));
+        assertThat(membershipIds).hasSize(5);
+        assertThat(results)
+                .allSatisfy(result -> assertThat(result.getMembershipId()).isEqualTo(membershipIds.get(result.getUserId())));
+    }
+
+    @Test
+    void projectMembersPageAcrossRoleGroupsByCursor() {
+        when(projectAccessCache.hasActiveRole(eq(project.getId()), eq(owner.getId()), any())).thenReturn(true);
+        saveMembership(saveUser("manager"), ProjectRole.MANAGER);
+        saveMembership(saveUser("member2"), ProjectRole.MEMBER);
+
+        statementCounter.start();
+
+        CursorPageResponse<ProjectMemberResponse> first =
+                membershipService.getProjectMembers(project.getId(), owner.getId(), null, MembershipStatus.ACTIVE, null, 2);
+
+        // one range per role group touched: OWNER, MANAGER, then MEMBER for the look-ahead row
+        assertThat(statementCounter.stop()).isEqualTo(3);
+        assertThat(first.getContent())
+                .extracting(ProjectMemberResponse::getUsername)
+                .containsExactly("owner", "manager");
+
+        CursorPageResponse<ProjectMemberResponse> second = membershipService.getProjectMembers(
+                project.getId(), owner.getId(), null, MembershipStatus.ACTIVE, first.getNextCursor(), 2);
+
+        assertThat(second.getContent())
+                .extracting(ProjectMemberResponse::getUsername)
+                .containsExactly("member", "member2");
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pendingMembersAreHiddenFromPlainMembers() {
+        User member = memberMembership.getUser();
+
+        assertThatThrownBy(() -> membershipService.getProjectMembers(
+                project.getId(), member.getId(), null, MembershipStatus.PENDING, null, 20))
+                .isInstanceOf(AuthorizationDeniedException.class);
+    }
+
+    @Test
+    void projectDetailsLoadsTheViewerMembershipOnce() {
+        when(projectAccessCache.hasActiveRole(eq(project.getId()), eq(owner.getId()), any())).thenReturn(true);
+
+        statementCounter.start();
+
+        ProjectDetailsResponse details = projectService.getProjectDetails(project.getId(), owner.getId());
+
+        // project + viewer membership + stats row, the policy check is a cache hit
+        assertThat(statementCounter.stop()).isEqualTo(3);
+        assertThat(details.getMyRole()).isEqualTo(ProjectRole.OWNER);
+    }
+
+    @Test
+    void projectDetailsVersionIsOneProbeAndFollowsUpdates() throws InterruptedException {
+        when(projectAccessCache.hasActiveRole(eq(project.getId()), eq(owner.getId()), any())).thenReturn(true);
+
+        statementCounter.start();
+
+        ResourceVersion version = projectService.getProjectDetailsVersion(project.getId(), owner.getId()).orElseThrow();
+
+        assertThat(statementCounter.stop()).isEqualTo(1);
+        assertThat(projectService.getProjectDetailsVersion(project.getId(), owner.getId())).contains(version);
+
+        Thread.sleep(5); // updated_at must move
+        projectRepository.findById(project.getId()).orElseThrow().setName("Renamed");
+        entityManager.flush();
+
+        assertThat(projectService.getProjectDetailsVersion(project.getId(), owner.getId()).orElseThrow().etag())
+                .isNotEqualTo(version.etag());
+    }
+
+    @Test
+    void nonMemberIsStillDenied() {
+        User outsider = saveUser("outsider");
+
+        assertThatThrownBy(() -> projectService.getProjectDetails(project.getId(), outsider.getId()))
+                .isInstanceOf(AuthorizationDeniedException.class);
+    }
+
+    private User saveUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .role(Role.USER)
+                .build());
+    }
+
+    private Membership saveMembership(User user, ProjectRole role) {
+        return membershipRepository.save(Membership.builder()
+                .user(user)
+                .project(project)
+                .role(role)
+                .status(MembershipStatus.ACTIVE)
+                .JoinedAt(Instant.now())
+                .build());
+    }
+}
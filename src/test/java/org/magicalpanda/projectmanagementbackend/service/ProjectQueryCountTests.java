@@ -0,0 +1,168 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.magicalpanda.projectmanagementbackend.dto.response.CursorPageResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.ProjectSummaryResponse;
+import org.magicalpanda.projectmanagementbackend.model.Membership;
+import org.magicalpanda.projectmanagementbackend.model.Project;
+import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.Role;
+import org.magicalpanda.projectmanagementbackend.policy.MembershipContext;
+import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
+import org.magicalpanda.projectmanagementbackend.repository.ProjectRepository;
+import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.magicalpanda.projectmanagementbackend.support.StatementCounter;
+import org.magicalpanda.projectmanagementbackend.util.ResourceVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pins the number of SQL statements per page of GET /api/projects, so a lazy load per
+ * row (N+1) fails the build.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ProjectService.class, MembershipContext.class})
+class ProjectQueryCountTests {
+
+    private static final int PROJECTS = 25;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MembershipRepository membershipRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private StatementCounter statementCounter;
+
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new StatementCounter(entityManagerFactory, entityManager);
+
+        alice = userRepository.save(User.builder()
+                .username("alice")
+                .email("alice@example.com")
+                .role(Role.USER)
+                .build());
+
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = projectRepository.save(Project.builder()
+                    .name("Project " + i)
+                    .owner(alice)
+                    .status(ProjectStatus.IN_PROGRESS)
+                    .build());
+
+            membershipRepository.save(Membership.builder()
+                    .user(alice)
+                    .project(project)
+                    .role(i % 2 == 0 ? ProjectRole.OWNER : ProjectRole.MEMBER)
+                    .status(MembershipStatus.ACTIVE)
+                    .JoinedAt(Instant.now())
+                    .build());
+        }
+    }
+
+    @Test
+    void pageOfProjectsIssuesOneSelectAndOneCount() {
+        statementCounter.start();
+
+        Page<ProjectSummaryResponse> page = projectService.getMyProjects(
+                alice.getId(), "all", null, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        // projection select + count, independent of the page size
+        assertThat(statementCounter.stop()).isEqualTo(2);
+        assertThat(page.getTotalElements()).isEqualTo(PROJECTS);
+        assertThat(page.getContent()).hasSize(10)
+                .allSatisfy(summary -> assertThat(summary.getName()).startsWith("Project "));
+    }
+
+    @Test
+    void ownedScopeFiltersByRole() {
+        statementCounter.start();
+
+        Page<ProjectSummaryResponse> page = projectService.getMyProjects(
+                alice.getId(), "owned", null, PageRequest.of(0, 5));
+
+        assertThat(statementCounter.stop()).isEqualTo(2);
+        assertThat(page.getTotalElements()).isEqualTo((PROJECTS + 1) / 2);
+        assertThat(page.getContent()).extracting(ProjectSummaryResponse::getRole).containsOnly(ProjectRole.OWNER);
+    }
+
+    @Test
+    void cursorPagesIssueOneSelectEachAndCoverEveryProjectOnce() {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            statementCounter.start();
+
+            CursorPageResponse<ProjectSummaryResponse> page =
+                    projectService.getMyProjectsByCursor(alice.getId(), "all", null, cursor, 10);
+
+            // index seek only, no count query
+            assertThat(statementCounter.stop()).isEqualTo(1);
+
+            page.getContent().forEach(summary -> assertThat(seen.add(summary.getId())).isTrue());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(PROJECTS);
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void listingVersionIsOneProbeAndFollowsMembershipChanges() {
+        statementCounter.start();
+
+        ResourceVersion version = projectService.getMyProjectsVersion(alice.getId());
+
+        assertThat(statementCounter.stop()).isEqualTo(1);
+
+        // Leaving a project drops it from the listing, so the version must change
+        membershipRepository.findAll().get(0).setStatus(MembershipStatus.LEFT);
+        entityManager.flush();
+
+        assertThat(projectService.getMyProjectsVersion(alice.getId()).etag()).isNotEqualTo(version.etag());
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> projectService.getMyProjectsByCursor(alice.getId(), "all", null, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,256 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.magicalpanda.projectmanagementbackend.config.AsyncConfig;
+import org.magicalpanda.projectmanagementbackend.dto.request.CreateProjectRequest;
+import org.magicalpanda.projectmanagementbackend.event.MembershipChangedEvent;
+import org.magicalpanda.projectmanagementbackend.event.MembershipsChangedEvent;
+import org.magicalpanda.projectmanagementbackend.event.TaskChangedEvent;
+import org.magicalpanda.projectmanagementbackend.event.TasksChangedEvent;
+import org.magicalpanda.projectmanagementbackend.model.Membership;
+import org.magicalpanda.projectmanagementbackend.model.Project;
+import org.magicalpanda.projectmanagementbackend.model.ProjectStats;
+import org.magicalpanda.projectmanagementbackend.model.Task;
+import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.*;
+import org.magicalpanda.projectmanagementbackend.policy.MembershipContext;
+import org.magicalpanda.projectmanagementbackend.policy.ProjectAccessCache;
+import org.magicalpanda.projectmanagementbackend.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs without a test transaction, so the before-commit listeners really fire, and with
+ * @Async enabled, so the startup backfill runs the way it does in the application.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ProjectStatsService.class, ProjectService.class, MembershipContext.class, AsyncConfig.class})
+class ProjectStatsServiceTests {
+
+    @MockitoBean
+    private ProjectAccessCache projectAccessCache;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectStatsRepository projectStatsRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MembershipRepository membershipRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskAssignmentRepository taskAssignmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        owner = userRepository.save(User.builder()
+                .username("owner")
+                .email("owner@example.com")
+                .role(Role.USER)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskAssignmentRepository.deleteAll();
+        taskRepository.deleteAll();
+        membershipRepository.deleteAll();
+        projectStatsRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void committedChangesAreAppliedAsDeltas() {
+        Long projectId = projectService.createProject(createProjectRequest(), owner.getId()).getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new MembershipChangedEvent(2L, projectId, null, MembershipStatus.PENDING));
+            eventPublisher.publishEvent(TaskChangedEvent.created(projectId, TaskStatus.TODO, TaskPriority.HIGH));
+            eventPublisher.publishEvent(new TaskChangedEvent(
+                    projectId, TaskStatus.TODO, TaskPriority.LOW, TaskStatus.COMPLETED, TaskPriority.LOW));
+        });
+
+        ProjectStats stats = projectStatsRepository.findById(projectId).orElseThrow();
+        assertThat(stats.getActiveMembers()).isEqualTo(1); // the owner
+        assertThat(stats.getPendingInvites()).isEqualTo(1);
+        assertThat(stats.getTasksTodo()).isZero();
+        assertThat(stats.getTasksCompleted()).isEqualTo(1);
+        assertThat(stats.getTasksHigh()).isEqualTo(1);
+    }
+
+    @Test
+    void batchedMembershipChangesAreAppliedTogether() {
+        Long projectId = projectService.createProject(createProjectRequest(), owner.getId()).getId();
+
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishEvent(new MembershipsChangedEvent(List.of(
+                new MembershipChangedEvent(2L, projectId, null, MembershipStatus.PENDING),
+                new MembershipChangedEvent(3L, projectId, null, MembershipStatus.PENDING),
+                new MembershipChangedEvent(4L, projectId, MembershipStatus.LEFT, MembershipStatus.PENDING)
+        ))));
+
+        ProjectStats stats = projectStatsRepository.findById(projectId).orElseThrow();
+        assertThat(stats.getActiveMembers()).isEqualTo(1);
+        assertThat(stats.getPendingInvites()).isEqualTo(3);
+    }
+
+    @Test
+    void batchedTaskChangesAreAppliedTogether() {
+        Long projectId = projectService.createProject(createProjectRequest(), owner.getId()).getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(TaskChangedEvent.created(projectId, TaskStatus.TODO, TaskPriority.LOW));
+            eventPublisher.publishEvent(TaskChangedEvent.created(projectId, TaskStatus.TODO, TaskPriority.LOW));
+            eventPublisher.publishEvent(new TasksChangedEvent(List.of(
+                    new TaskChangedEvent(projectId, TaskStatus.TODO, TaskPriority.LOW, TaskStatus.COMPLETED, TaskPriority.LOW),
+                    new TaskChangedEvent(projectId, TaskStatus.TODO, TaskPriority.LOW, TaskStatus.COMPLETED, TaskPriority.HIGH)
+            )));
+        });
+
+        ProjectStats stats = projectStatsRepository.findById(projectId).orElseThrow();
+        assertThat(stats.getTasksTodo()).isZero();
+        assertThat(stats.getTasksCompleted()).isEqualTo(2);
+        assertThat(stats.getTasksLow()).isEqualTo(1);
+        assertThat(stats.getTasksHigh()).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackChangesAreNotApplied() {
+        Long projectId = projectService.createProject(createProjectRequest(), owner.getId()).getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new MembershipChangedEvent(2L, projectId, null, MembershipStatus.ACTIVE));
+            status.setRollbackOnly();
+        });
+
+        assertThat(projectStatsRepository.findById(projectId).orElseThrow().getActiveMembers()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildRecountsDriftedAndMissingRows() {
+        Project drifted = saveProject("Drifted");
+        Project missing = saveProject("Missing");
+        projectStatsRepository.save(ProjectStats.builder().projectId(drifted.getId()).activeMembers(42).build());
+
+        saveMembership(drifted, MembershipStatus.ACTIVE);
+        saveTask(drifted, TaskStatus.IN_PROGRESS, TaskPriority.MEDIUM);
+        saveTask(drifted, TaskStatus.IN_PROGRESS, TaskPriority.HIGH);
+        saveTask(missing, TaskStatus.TODO, TaskPriority.LOW);
+
+        assertThat(projectStatsService.rebuild()).isEqualTo(2);
+
+        ProjectStats driftedStats = projectStatsRepository.findById(drifted.getId()).orElseThrow();
+        assertThat(driftedStats.getActiveMembers()).isEqualTo(1);
+        assertThat(driftedStats.getTasksInProgress()).isEqualTo(2);
+        assertThat(driftedStats.getTasksMedium()).isEqualTo(1);
+        assertThat(driftedStats.getTasksHigh()).isEqualTo(1);
+
+        ProjectStats missingStats = projectStatsRepository.findById(missing.getId()).orElseThrow();
+        assertThat(missingStats.getActiveMembers()).isZero();
+        assertThat(missingStats.getTasksTodo()).isEqualTo(1);
+        assertThat(missingStats.getTasksLow()).isEqualTo(1);
+    }
+
+    @Test
+    void backfillCountsOnlyProjectsWithoutStats() {
+        Project counted = saveProject("Counted");
+        Project missing = saveProject("Missing");
+        projectStatsRepository.save(ProjectStats.builder().projectId(counted.getId()).activeMembers(42).build());
+
+        saveMembership(counted, MembershipStatus.ACTIVE);
+        saveMembership(missing, MembershipStatus.ACTIVE);
+
+        assertThat(projectStatsService.backfill()).isEqualTo(1);
+
+        assertThat(projectStatsRepository.findById(counted.getId()).orElseThrow().getActiveMembers()).isEqualTo(42);
+        assertThat(projectStatsRepository.findById(missing.getId()).orElseThrow().getActiveMembers()).isEqualTo(1);
+    }
+
+    @Test
+    void startupBackfillRunsInTheBackground() {
+        Project missing = saveProject("Missing");
+        saveMembership(missing, MembershipStatus.ACTIVE);
+
+        projectStatsService.backfillOnStartup();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(projectStatsRepository.findById(missing.getId()))
+                .hasValueSatisfying(stats -> assertThat(stats.getActiveMembers()).isEqualTo(1)));
+    }
+
+    private CreateProjectRequest createProjectRequest() {
+        CreateProjectRequest request = new CreateProjectRequest();
+        ReflectionTestUtils.setField(request, "name", "Project");
+        return request;
+    }
+
+    private Project saveProject(String name) {
+        return projectRepository.save(Project.builder()
+                .name(name)
+                .owner(owner)
+                .status(ProjectStatus.IN_PROGRESS)
+                .build());
+    }
+
+    private void saveMembership(Project project, MembershipStatus status) {
+        membershipRepository.save(Membership.builder()
+                .user(owner)
+                .project(project)
+                .role(ProjectRole.OWNER)
+                .status(status)
+                .JoinedAt(Instant.now())
+                .build());
+    }
+
+    private Task saveTask(Project project, TaskStatus status, TaskPriority priority) {
+        return taskRepository.save(Task.builder()
+                .title("Task")
+                .status(status)
+                .priority(priority)
+                .createdBy(owner)
+                .project(project)
+                .build());
+    }
+}
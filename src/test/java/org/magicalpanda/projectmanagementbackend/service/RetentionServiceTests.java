@@ -0,0 +1,98 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.magicalpanda.projectmanagementbackend.model.RefreshToken;
+import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.Role;
+import org.magicalpanda.projectmanagementbackend.repository.RefreshTokenRepository;
+import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.retention.batch-size=2",
+        "app.retention.batch-pause=0ms",
+        "app.retention.refresh-tokens.retain-after-expiry=1d"
+})
+@Import({RetentionService.class, RetentionServiceTests.Config.class})
+class RetentionServiceTests {
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private RetentionService retentionService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("alice")
+                .email("alice@example.com")
+                .role(Role.USER)
+                .build());
+    }
+
+    @Test
+    void deletesOnlyTokensExpiredBeyondRetentionInBatches() {
+        Instant now = Instant.now();
+
+        for (int i = 0; i < 5; i++) {
+            saveToken(now.minus(Duration.ofDays(2)));
+        }
+        RefreshToken recentlyExpired = saveToken(now.minus(Duration.ofHours(1)));
+        RefreshToken active = saveToken(now.plus(Duration.ofDays(7)));
+        entityManager.flush();
+
+        retentionService.run();
+
+        entityManager.clear();
+        assertThat(refreshTokenRepository.findAll())
+                .extracting(RefreshToken::getJti)
+                .containsExactlyInAnyOrder(recentlyExpired.getJti(), active.getJti());
+
+        assertThat(meterRegistry.counter("retention.deleted", "table", "refresh_tokens").count()).isEqualTo(5);
+        assertThat(meterRegistry.counter("retention.batches", "table", "refresh_tokens").count()).isEqualTo(3);
+    }
+
+    private RefreshToken saveToken(Instant expiresAt) {
+        return refreshTokenRepository.save(RefreshToken.builder()
+                .jti(UUID.randomUUID().toString())
+                .user(user)
+                .expiresAt(expiresAt)
+                .build());
+    }
+}
@@ -0,0 +1,248 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.magicalpanda.projectmanagementbackend.dto.request.CreateProjectRequest;
+import org.magicalpanda.projectmanagementbackend.dto.response.SearchHitResponse;
+import org.magicalpanda.projectmanagementbackend.model.Project;
+import org.magicalpanda.projectmanagementbackend.model.Task;
+import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.Role;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+import org.magicalpanda.projectmanagementbackend.policy.MembershipContext;
+import org.magicalpanda.projectmanagementbackend.policy.ProjectAccessCache;
+import org.magicalpanda.projectmanagementbackend.repository.*;
+import org.magicalpanda.projectmanagementbackend.search.SearchDocument;
+import org.magicalpanda.projectmanagementbackend.search.SearchDocumentType;
+import org.magicalpanda.projectmanagementbackend.search.SearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs without a test transaction, so the after-commit index updates really happen.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SearchService.class, SearchIndex.class, ProjectService.class, MembershipContext.class})
+class SearchServiceTests {
+
+    @TempDir
+    static Path indexPath;
+
+    @DynamicPropertySource
+    static void searchProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.search.index-path", indexPath::toString);
+        registry.add("app.search.rebuild-batch-size", () -> 2);
+    }
+
+    @MockitoBean
+    private ProjectAccessCache projectAccessCache;
+
+    @MockitoBean
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectStatsRepository projectStatsRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MembershipRepository membershipRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User outsider;
+
+    @BeforeEach
+    void setUp() {
+        owner = saveUser("owner");
+        outsider = saveUser("outsider");
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAll();
+        membershipRepository.deleteAll();
+        projectStatsRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+        searchIndex.refresh();
+    }
+
+    @Test
+    void committedWritesBecomeSearchableForMembersOnly() {
+        Long projectId = projectService.createProject(createProjectRequest("Apollo launch"), owner.getId()).getId();
+        Task task = saveTask(projectRepository.findById(projectId).orElseThrow(), "Fuel check", "Verify the apollo tanks");
+        searchIndex.refresh();
+
+        List<SearchHitResponse> hits = searchService.search(owner.getId(), "apol", null, 10);
+
+        // the title match ranks above the description match
+        assertThat(hits)
+                .extracting(SearchHitResponse::getType, SearchHitResponse::getId)
+                .containsExactly(
+                        tuple(SearchDocumentType.PROJECT, projectId),
+                        tuple(SearchDocumentType.TASK, task.getId())
+                );
+        assertThat(searchService.search(outsider.getId(), "apollo", null, 10)).isEmpty();
+    }
+
+    @Test
+    void updatesAndDeletesReplaceTheIndexedDocument() {
+        Long projectId = projectService.createProject(createProjectRequest("Apollo"), owner.getId()).getId();
+        Project project = projectRepository.findById(projectId).orElseThrow();
+        Task task = saveTask(project, "Gemini", null);
+
+        project.setName("Artemis");
+        projectRepository.save(project);
+        searchIndex.refresh();
+
+        assertThat(searchService.search(owner.getId(), "apollo", null, 10)).isEmpty();
+        assertThat(searchService.search(owner.getId(), "artemis", null, 10)).hasSize(1);
+
+        taskRepository.delete(task);
+        searchIndex.refresh();
+
+        assertThat(searchService.search(owner.getId(), "gemini", null, 10)).isEmpty();
+    }
+
+    @Test
+    void rebuildRestoresDocumentsMissedByTheIndex() {
+        Long projectId = projectService.createProject(createProjectRequest("Apollo"), owner.getId()).getId();
+        Project project = projectRepository.findById(projectId).orElseThrow();
+        saveTask(project, "Gemini", null);
+        saveTask(project, "Mercury", null);
+
+        // an index that lost its uncommitted writes
+        searchIndex.rebuild(() -> { });
+        assertThat(searchService.search(owner.getId(), "gemini", null, 10)).isEmpty();
+
+        // 1 project + 2 tasks, read in batches of 2
+        assertThat(searchService.rebuild()).isEqualTo(3);
+        assertThat(searchService.search(owner.getId(), "gemini", null, 10)).hasSize(1);
+        assertThat(searchService.search(owner.getId(), "apollo", null, 10)).hasSize(1);
+    }
+
+    @Test
+    void changesAnnouncedByOtherNodesAreReadFromTheDatabase() {
+        Long projectId = projectService.createProject(createProjectRequest("Apollo"), owner.getId()).getId();
+        Task task = saveTask(projectRepository.findById(projectId).orElseThrow(), "Gemini", null);
+        verify(redisTemplate).convertAndSend(eq(SearchService.CHANNEL), anyStringEndingWith("|TASK:" + task.getId()));
+
+        // this node never saw the write
+        searchIndex.rebuild(() -> { });
+
+        searchService.onMessage(message(SearchService.CHANNEL, "other-node|TASK:" + task.getId()), null);
+        searchIndex.refresh();
+        assertThat(searchService.search(owner.getId(), "gemini", null, 10)).hasSize(1);
+
+        // deleted elsewhere: the stale document goes
+        taskRepository.deleteById(task.getId());
+        searchIndex.upsert(new SearchDocument(SearchDocumentType.TASK, task.getId(), projectId, "Gemini", null));
+
+        searchService.onMessage(message(SearchService.CHANNEL, "other-node|TASK:" + task.getId()), null);
+        searchIndex.refresh();
+        assertThat(searchService.search(owner.getId(), "gemini", null, 10)).isEmpty();
+    }
+
+    @Test
+    void emptyIndexIsRebuiltAtStartup() {
+        projectService.createProject(createProjectRequest("Apollo"), owner.getId());
+        searchIndex.rebuild(() -> { });
+
+        searchService.rebuildIfEmpty();
+
+        assertThat(searchService.search(owner.getId(), "apollo", null, 10)).hasSize(1);
+    }
+
+    @Test
+    void failedRebuildKeepsTheIndexedDocuments() {
+        projectService.createProject(createProjectRequest("Apollo"), owner.getId());
+
+        assertThatThrownBy(() -> searchIndex.rebuild(() -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+        searchIndex.refresh();
+        searchIndex.commit();
+
+        assertThat(searchService.search(owner.getId(), "apollo", null, 10)).hasSize(1);
+    }
+
+    @Test
+    void textWithoutTermsIsRejected() {
+        assertThatThrownBy(() -> searchService.search(owner.getId(), " ?! ", null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Message message(String channel, String body) {
+        return new DefaultMessage(channel.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String anyStringEndingWith(String suffix) {
+        return argThat(message -> message.endsWith(suffix));
+    }
+
+    private CreateProjectRequest createProjectRequest(String name) {
+        CreateProjectRequest request = new CreateProjectRequest();
+        ReflectionTestUtils.setField(request, "name", name);
+        return request;
+    }
+
+    private Task saveTask(Project project, String title, String description) {
+        return taskRepository.save(Task.builder()
+                .title(title)
+                .description(description)
+                .status(TaskStatus.TODO)
+                .priority(TaskPriority.MEDIUM)
+                .createdBy(owner)
+                .project(project)
+                .build());
+    }
+
+    private User saveUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .role(Role.USER)
+                .build());
+    }
+}
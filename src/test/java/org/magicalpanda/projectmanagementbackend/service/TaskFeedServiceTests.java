@@ -0,0 +1,121 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.magicalpanda.projectmanagementbackend.model.Project;
+import org.magicalpanda.projectmanagementbackend.model.Task;
+import org.magicalpanda.projectmanagementbackend.model.TaskAssignment;
+import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.Role;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+import org.magicalpanda.projectmanagementbackend.repository.ProjectRepository;
+import org.magicalpanda.projectmanagementbackend.repository.TaskAssignmentRepository;
+import org.magicalpanda.projectmanagementbackend.repository.TaskRepository;
+import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs without a test transaction, like the scheduled job.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.task-feed.resync-batch-size=1"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TaskFeedService.class)
+class TaskFeedServiceTests {
+
+    @Autowired
+    private TaskFeedService taskFeedService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskAssignmentRepository taskAssignmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        taskAssignmentRepository.deleteAll();
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void resyncRepairsCopiesThatMissedATaskWrite() {
+        User owner = userRepository.save(User.builder()
+                .username("owner")
+                .email("owner@example.com")
+                .role(Role.USER)
+                .build());
+        Project first = saveProject(owner, "First");
+        Project second = saveProject(owner, "Second");
+        Task completed = saveTask(owner, first);
+        Task reopened = saveTask(owner, second);
+        taskAssignmentRepository.save(TaskAssignment.builder().task(completed).assignee(owner).assignedBy(owner).build());
+        taskAssignmentRepository.save(TaskAssignment.builder().task(reopened).assignee(owner).assignedBy(owner).build());
+
+        // A write that bypassed the sync, and a copy as left by adding the column to old rows
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            taskRepository.updateAll(first.getId(), List.of(completed.getId()), TaskStatus.COMPLETED, null, null);
+            entityManager.createQuery("update TaskAssignment a set a.taskOpen = false where a.task.id = :taskId")
+                    .setParameter("taskId", reopened.getId())
+                    .executeUpdate();
+        });
+
+        // one project per batch
+        assertThat(taskFeedService.resync()).isEqualTo(2);
+
+        assertThat(taskAssignmentRepository.findAll())
+                .extracting(assignment -> assignment.getTask().getId(), TaskAssignment::isTaskOpen)
+                .containsExactlyInAnyOrder(
+                        tuple(completed.getId(), false),
+                        tuple(reopened.getId(), true)
+                );
+    }
+
+    private Project saveProject(User owner, String name) {
+        return projectRepository.save(Project.builder()
+                .name(name)
+                .owner(owner)
+                .status(ProjectStatus.IN_PROGRESS)
+                .build());
+    }
+
+    private Task saveTask(User owner, Project project) {
+        return taskRepository.save(Task.builder()
+                .title("Task")
+                .status(TaskStatus.TODO)
+                .priority(TaskPriority.LOW)
+                .createdBy(owner)
+                .project(project)
+                .build());
+    }
+}
@@ -0,0 +1,367 @@
+package org.magicalpanda.projectmanagementbackend.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.BulkTaskOutcome;
+import org.magicalpanda.projectmanagementbackend.dto.enumeration.TaskExportFormat;
+import org.magicalpanda.projectmanagementbackend.dto.request.BulkUpdateTasksRequest;
+import org.magicalpanda.projectmanagementbackend.dto.request.TaskFilter;
+import org.magicalpanda.projectmanagementbackend.dto.response.AssignedTaskResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.BulkTaskResultResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.CursorPageResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.TaskAssigneeResponse;
+import org.magicalpanda.projectmanagementbackend.dto.response.TaskResponse;
+import org.magicalpanda.projectmanagementbackend.model.Membership;
+import org.magicalpanda.projectmanagementbackend.model.Project;
+import org.magicalpanda.projectmanagementbackend.model.Task;
+import org.magicalpanda.projectmanagementbackend.model.TaskAssignment;
+import org.magicalpanda.projectmanagementbackend.model.User;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.MembershipStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectRole;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.ProjectStatus;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.Role;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskPriority;
+import org.magicalpanda.projectmanagementbackend.model.enumeration.TaskStatus;
+import org.magicalpanda.projectmanagementbackend.policy.ProjectAccessCache;
+import org.magicalpanda.projectmanagementbackend.policy.ProjectPolicy;
+import org.magicalpanda.projectmanagementbackend.repository.MembershipRepository;
+import org.magicalpanda.projectmanagementbackend.repository.ProjectRepository;
+import org.magicalpanda.projectmanagementbackend.repository.TaskAssignmentRepository;
+import org.magicalpanda.projectmanagementbackend.repository.TaskRepository;
+import org.magicalpanda.projectmanagementbackend.repository.UserRepository;
+import org.magicalpanda.projectmanagementbackend.support.StatementCounter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pins the statements of the task board: one range per column touched plus one assignee query
+ * per page, whatever the board size.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.task-export.fetch-size=500" // H2 rejects MySQL's streaming fetch size
+})
+@Import({TaskService.class, TaskExportService.class, ProjectPolicy.class, TaskQueryCountTests.Config.class})
+class TaskQueryCountTests {
+
+    private static final TaskFilter NO_FILTER = new TaskFilter(null, null, null, null, null);
+
+    @TestConfiguration
+    @EnableMethodSecurity
+    static class Config {
+    }
+
+    @MockitoBean
+    private ProjectAccessCache projectAccessCache;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskAssignmentRepository taskAssignmentRepository;
+
+    @Autowired
+    private MembershipRepository membershipRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private StatementCounter statementCounter;
+
+    private User owner;
+    private User assignee;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "owner", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        statementCounter = new StatementCounter(entityManagerFactory, entityManager);
+
+        owner = saveUser("owner");
+        assignee = saveUser("assignee");
+        project = projectRepository.save(Project.builder()
+                .name("Board")
+                .owner(owner)
+                .status(ProjectStatus.IN_PROGRESS)
+                .build());
+
+        when(projectAccessCache.hasActiveRole(eq(project.getId()), eq(owner.getId()), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void boardPagesAcrossColumnsByCursor() {
+        Task todo = saveTask(TaskStatus.TODO, TaskPriority.HIGH, null);
+        saveTask(TaskStatus.TODO, TaskPriority.LOW, null);
+        saveTask(TaskStatus.COMPLETED, TaskPriority.MEDIUM, null);
+        assign(todo, assignee);
+        assign(todo, owner);
+
+        statementCounter.start();
+
+        CursorPageResponse<TaskResponse> first = taskService.getTasks(project.getId(), owner.getId(), NO_FILTER, null, 1);
+
+        // TODO column (the page and the look-ahead row) + assignees of the page
+        assertThat(statementCounter.stop()).isEqualTo(2);
+        assertThat(first.getContent()).extracting(TaskResponse::getId).containsExactly(todo.getId());
+        assertThat(first.getContent().get(0).getAssignees())
+                .extracting(TaskAssigneeResponse::getUsername)
+                .containsExactly("assignee", "owner");
+
+        statementCounter.start();
+
+        CursorPageResponse<TaskResponse> second =
+                taskService.getTasks(project.getId(), owner.getId(), NO_FILTER, first.getNextCursor(), 2);
+
+        // rest of TODO, IN_PROGRESS, COMPLETED + assignees
+        assertThat(statementCounter.stop()).isEqualTo(4);
+        assertThat(second.getContent()).extracting(TaskResponse::getStatus).containsExactly(TaskStatus.TODO, TaskStatus.COMPLETED);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void filtersApplyWithinTheColumn() {
+        Instant now = Instant.now();
+        Task dueSoon = saveTask(TaskStatus.IN_PROGRESS, TaskPriority.HIGH, now.plus(Duration.ofDays(1)));
+        Task assigned = saveTask(TaskStatus.IN_PROGRESS, TaskPriority.HIGH, now.plus(Duration.ofDays(30)));
+        saveTask(TaskStatus.IN_PROGRESS, TaskPriority.LOW, now.plus(Duration.ofDays(1)));
+        assign(assigned, assignee);
+
+        TaskFilter highDueThisWeek = new TaskFilter(
+                List.of(TaskStatus.IN_PROGRESS), List.of(TaskPriority.HIGH), null, now, now.plus(Duration.ofDays(7)));
+        TaskFilter assignedOnly = new TaskFilter(
+                List.of(TaskStatus.IN_PROGRESS), null, assignee.getId(), null, null);
+
+        assertThat(taskService.getTasks(project.getId(), owner.getId(), highDueThisWeek, null, 20).getContent())
+                .extracting(TaskResponse::getId)
+                .containsExactly(dueSoon.getId());
+        assertThat(taskService.getTasks(project.getId(), owner.getId(), assignedOnly, null, 20).getContent())
+                .extracting(TaskResponse::getId)
+                .containsExactly(assigned.getId());
+    }
+
+    @Test
+    void bulkUpdateIsOneLockingReadAndOneUpdate() {
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            taskIds.add(saveTask(TaskStatus.TODO, TaskPriority.LOW, null).getId());
+        }
+        Long done = saveTask(TaskStatus.COMPLETED, TaskPriority.LOW, null).getId();
+        taskIds.add(done);
+        taskIds.add(-1L);
+
+        BulkUpdateTasksRequest request = new BulkUpdateTasksRequest();
+        ReflectionTestUtils.setField(request, "taskIds", taskIds);
+        ReflectionTestUtils.setField(request, "status", TaskStatus.COMPLETED);
+
+        statementCounter.start();
+
+        List<BulkTaskResultResponse> results = taskService.updateTasks(project.getId(), owner.getId(), request);
+
+        // locking read + update + feed copies
+        assertThat(statementCounter.stop()).isEqualTo(3);
+        assertThat(results).hasSize(32);
+        assertThat(results.subList(0, 30)).extracting(BulkTaskResultResponse::getOutcome).containsOnly(BulkTaskOutcome.UPDATED);
+        assertThat(results.get(30).getOutcome()).isEqualTo(BulkTaskOutcome.UNCHANGED);
+        assertThat(results.get(31).getOutcome()).isEqualTo(BulkTaskOutcome.NOT_FOUND);
+        assertThat(taskRepository.findAllById(taskIds))
+                .extracting(Task::getStatus)
+                .containsOnly(TaskStatus.COMPLETED);
+    }
+
+    @Test
+    void myTasksFeedIsDueDateOrderedAndSkipsCompletedTasks() {
+        Instant now = Instant.now();
+        Task later = saveTask(TaskStatus.TODO, TaskPriority.LOW, now.plus(Duration.ofDays(3)));
+        Task sooner = saveTask(TaskStatus.IN_PROGRESS, TaskPriority.HIGH, now.plus(Duration.ofDays(1)));
+        Task undated = saveTask(TaskStatus.TODO, TaskPriority.MEDIUM, null);
+        Task done = saveTask(TaskStatus.COMPLETED, TaskPriority.MEDIUM, now);
+        for (Task task : List.of(later, sooner, undated, done)) {
+            assign(task, assignee);
+        }
+        joinProject(assignee, MembershipStatus.ACTIVE);
+
+        statementCounter.start();
+
+        CursorPageResponse<AssignedTaskResponse> first = taskService.getMyTasks(assignee.getId(), null, null, 2);
+
+        // dated range, then the undated range for the look-ahead row; tasks and projects joined by primary key
+        assertThat(statementCounter.stop()).isEqualTo(2);
+        assertThat(first.getContent()).extracting(AssignedTaskResponse::getId).containsExactly(sooner.getId(), later.getId());
+        assertThat(first.getContent().get(0).getProjectName()).isEqualTo("Board");
+
+        CursorPageResponse<AssignedTaskResponse> second =
+                taskService.getMyTasks(assignee.getId(), null, first.getNextCursor(), 2);
+
+        assertThat(second.getContent()).extracting(AssignedTaskResponse::getId).containsExactly(undated.getId());
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void feedHidesProjectsTheUserIsNoLongerAnActiveMemberOf() {
+        assign(saveTask(TaskStatus.TODO, TaskPriority.LOW, null), assignee);
+        Membership membership = joinProject(assignee, MembershipStatus.ACTIVE);
+
+        assertThat(taskService.getMyTasks(assignee.getId(), null, null, 20).getContent()).hasSize(1);
+
+        membership.setStatus(MembershipStatus.LEFT);
+
+        assertThat(taskService.getMyTasks(assignee.getId(), null, null, 20).getContent()).isEmpty();
+    }
+
+    @Test
+    void bulkCompletionLeavesTheFeed() {
+        Task task = saveTask(TaskStatus.TODO, TaskPriority.LOW, null);
+        assign(task, assignee);
+        joinProject(assignee, MembershipStatus.ACTIVE);
+
+        BulkUpdateTasksRequest request = new BulkUpdateTasksRequest();
+        ReflectionTestUtils.setField(request, "taskIds", List.of(task.getId()));
+        ReflectionTestUtils.setField(request, "status", TaskStatus.COMPLETED);
+
+        taskService.updateTasks(project.getId(), owner.getId(), request);
+
+        assertThat(taskService.getMyTasks(assignee.getId(), null, null, 20).getContent()).isEmpty();
+    }
+
+    @Test
+    void exportStreamsEveryTaskWithOneQuery() {
+        Task quoted = taskRepository.save(Task.builder()
+                .title("Fix \"login\", again")
+                .description("line one\nline two")
+                .status(TaskStatus.TODO)
+                .priority(TaskPriority.HIGH)
+                .createdBy(owner)
+                .project(project)
+                .build());
+        Task unassigned = saveTask(TaskStatus.COMPLETED, TaskPriority.LOW, null);
+        assign(quoted, assignee);
+        assign(quoted, owner);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementCounter.start();
+
+        taskExportService.writeTasks(project.getId(), TaskExportFormat.CSV, out);
+
+        // one forward-only read, assignees included
+        assertThat(statementCounter.stop()).isEqualTo(1);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("id,title,description,status,priority,due_date,created_at,updated_at,created_by,assignees\n");
+        assertThat(csv).contains(quoted.getId() + ",\"Fix \"\"login\"\", again\",\"line one\nline two\",TODO,HIGH,,");
+        assertThat(csv).containsPattern(",owner,(assignee;owner|owner;assignee)\n");
+        assertThat(csv).endsWith(",owner,\n");
+        assertThat(csv.indexOf(quoted.getId() + ",")).isLessThan(csv.indexOf(unassigned.getId() + ","));
+    }
+
+    @Test
+    void ndjsonExportIsOneObjectPerTask() {
+        Task task = saveTask(TaskStatus.TODO, TaskPriority.LOW, null);
+        saveTask(TaskStatus.TODO, TaskPriority.LOW, null);
+        assign(task, assignee);
+        assign(task, owner);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskExportService.writeTasks(project.getId(), TaskExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0))
+                .contains("\"id\":" + task.getId() + ",","\"username\":\"assignee\"", "\"username\":\"owner\"");
+    }
+
+    @Test
+    void exportIsDeniedToNonMembers() {
+        assertThatThrownBy(() -> taskExportService.exportTasks(project.getId(), assignee.getId(), TaskExportFormat.CSV))
+                .isInstanceOf(AuthorizationDeniedException.class);
+    }
+
+    @Test
+    void nonMemberIsDenied() {
+        assertThatThrownBy(() -> taskService.getTasks(project.getId(), assignee.getId(), NO_FILTER, null, 20))
+                .isInstanceOf(AuthorizationDeniedException.class);
+    }
+
+    private User saveUser(String username) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .role(Role.USER)
+                .build());
+    }
+
+    private Task saveTask(TaskStatus status, TaskPriority priority, Instant dueDate) {
+        return taskRepository.save(Task.builder()
+                .title("Task")
+                .status(status)
+                .priority(priority)
+                .dueDate(dueDate)
+                .createdBy(owner)
+                .project(project)
+                .build());
+    }
+
+    private Membership joinProject(User user, MembershipStatus status) {
+        return membershipRepository.save(Membership.builder()
+                .user(user)
+                .project(project)
+                .role(ProjectRole.MEMBER)
+                .status(status)
+                .JoinedAt(Instant.now())
+                .build());
+    }
+
+    private void assign(Task task, User user) {
+        taskAssignmentRepository.save(TaskAssignment.builder()
+                .task(task)
+                .assignee(user)
+                .assignedBy(owner)
+                .build());
+    }
+}
@@ -0,0 +1,30 @@
+package org.magicalpanda.projectmanagementbackend.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate sends, for tests that inspect the statements themselves.
+ *
+ * Register with spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public synchronized String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static synchronized void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static synchronized List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+}
@@ -0,0 +1,40 @@
+package org.magicalpanda.projectmanagementbackend.support;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Counts the JDBC statements Hibernate prepares, based on Hibernate statistics.
+ *
+ * Requires spring.jpa.properties.hibernate.generate_statistics=true.
+ */
+public final class StatementCounter {
+
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    public StatementCounter(EntityManagerFactory entityManagerFactory, EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Flushes and clears the persistence context so the measured code cannot be served
+     * from it, then resets the counters.
+     */
+    public void start() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    /**
+     * Flushes pending writes and returns the statements prepared since start().
+     */
+    public long stop() {
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+}